@@ -0,0 +1,73 @@
+package com.ts.configs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Short-lived signed attachment download links, so the browser can fetch a
+ * file straight from the download endpoint (streaming to disk, resuming with
+ * Range) without a bearer header. A link is minted only after the visibility
+ * check and names one attachment until it expires. The key is derived from
+ * the JWT secret, so every node accepts links minted by any other.
+ */
+@Component
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "files.download-links")
+public class DownloadLinkSigner {
+
+	private static final String ALGORITHM = "HmacSHA256";
+
+	@Getter @Setter
+	private long ttlSeconds = 300;
+
+	private final JwtUtil jwtUtil;
+
+	private SecretKeySpec key;
+
+	@PostConstruct
+	void init() throws GeneralSecurityException {
+		// a separate key, so a link signature can never pass for a token signature
+		byte[] derived = MessageDigest.getInstance("SHA-256")
+				.digest(("download-links:" + jwtUtil.getSecret()).getBytes(StandardCharsets.UTF_8));
+		key = new SecretKeySpec(derived, ALGORITHM);
+	}
+
+	/** Epoch second until which a link minted now is valid. */
+	public long expiresAt() {
+		return System.currentTimeMillis() / 1000 + ttlSeconds;
+	}
+
+	public String sign(Long ticketId, Long attachmentId, long expires) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			byte[] signature = mac.doFinal((ticketId + ":" + attachmentId + ":" + expires)
+					.getBytes(StandardCharsets.UTF_8));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Cannot sign download link", e);
+		}
+	}
+
+	public boolean verify(Long ticketId, Long attachmentId, long expires, String signature) {
+		if (signature == null || expires < System.currentTimeMillis() / 1000) {
+			return false;
+		}
+		return MessageDigest.isEqual(
+				sign(ticketId, attachmentId, expires).getBytes(StandardCharsets.US_ASCII),
+				signature.getBytes(StandardCharsets.US_ASCII));
+	}
+}
@@ -7,6 +7,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +20,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final EmployeeDetailsService detailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -32,14 +34,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
 
             String token = header.substring(7);
-            String email = jwtUtil.extractUsername(token);
+
+            // one signature check per request; null when invalid or expired
+            Claims claims = jwtUtil.parseVerified(token);
+            String email = claims == null ? null : claims.getSubject();
 
             if (email != null &&
-                SecurityContextHolder.getContext().getAuthentication() == null &&
-                jwtUtil.isTokenValid(token)) {
+                SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                EmployeeDetails userDetails =
-                        (EmployeeDetails) detailsService.loadUserByUsername(email);
+                EmployeeDetails userDetails = principalCache.get(
+                        email,
+                        subject -> (EmployeeDetails) detailsService.loadUserByUsername(subject)
+                );
 
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
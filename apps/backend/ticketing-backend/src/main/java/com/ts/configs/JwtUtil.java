@@ -2,7 +2,12 @@ package com.ts.configs;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -10,10 +15,16 @@ import org.springframework.stereotype.Component;
 import com.ts.models.Employee;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 @Data
 @Component
@@ -23,9 +34,25 @@ public class JwtUtil {
     private String secret;
 //    private long EXPIRATION = 1000 * 60 * 60; // 1 hour
     private long expiration;
-    
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+
+    // upper bound on remembered verified tokens
+    private int verifiedCacheSize = 10_000;
+
+    // built once from the secret; both are immutable and thread-safe
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private Key signingKey;
+
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private JwtParser parser;
+
+    // token hash -> verified claims, each entry valid until the token expires
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private final Map<String, Claims> verified = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(Employee employee) {
@@ -34,24 +61,66 @@ public class JwtUtil {
                 .claim("role", employee.getRole().name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims, or {@code null} when the
+     * token is malformed, forged or expired. Tokens already verified are
+     * answered from a cache until they expire.
+     */
+    public Claims parseVerified(String token) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+
+        Claims cached = verified.get(key);
+        if (cached != null) {
+            if (cached.getExpiration().getTime() > now) {
+                return cached;
+            }
+            verified.remove(key);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        if (claims.getExpiration() == null) {
+            return claims;
+        }
+
+        if (verified.size() >= verifiedCacheSize) {
+            verified.values().removeIf(c -> c.getExpiration().getTime() <= now);
+            if (verified.size() >= verifiedCacheSize) {
+                verified.clear();
+            }
+        }
+        verified.put(key, claims);
+        return claims;
+    }
+
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        Claims claims = parseVerified(token);
+        return claims == null ? null : claims.getSubject();
     }
 
     public boolean isTokenValid(String token) {
-        return getClaims(token).getExpiration().after(new Date());
+        return parseVerified(token) != null;
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
 }
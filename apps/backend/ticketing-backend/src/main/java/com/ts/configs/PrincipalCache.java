@@ -0,0 +1,114 @@
+package com.ts.configs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by JWT subject,
+ * so JwtAuthFilter does not hit the database on every request. Entries are
+ * invalidated explicitly whenever the underlying employee changes.
+ */
+@Component
+@ConfigurationProperties(prefix = "auth.principal-cache")
+public class PrincipalCache {
+
+	@Getter @Setter
+	private long ttlSeconds = 300;
+
+	@Getter @Setter
+	private int maxSize = 10_000;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	// bumped by every invalidation, guarded by entries
+	private long generation;
+
+	private static final class Entry {
+		private final EmployeeDetails details;
+		private final long expiresAt;
+
+		private Entry(EmployeeDetails details, long expiresAt) {
+			this.details = details;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	// access-ordered so the least recently used subject is evicted first
+	private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if (size() > maxSize) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	public EmployeeDetails get(String subject, Function<String, EmployeeDetails> loader) {
+		long now = System.currentTimeMillis();
+		long loadGeneration;
+
+		synchronized (entries) {
+			Entry entry = entries.get(subject);
+			if (entry != null && entry.expiresAt > now) {
+				hits.increment();
+				return entry.details;
+			}
+			loadGeneration = generation;
+		}
+
+		// load outside the lock so a slow query does not block other subjects
+		misses.increment();
+		EmployeeDetails details = loader.apply(subject);
+
+		synchronized (entries) {
+			// an invalidation during the load may have been for this subject: the
+			// result could predate it, so serve it once but do not cache it
+			if (generation == loadGeneration) {
+				entries.put(subject, new Entry(details, now + ttlSeconds * 1000));
+			}
+		}
+		return details;
+	}
+
+	public void invalidate(String subject) {
+		if (subject == null) {
+			return;
+		}
+		synchronized (entries) {
+			entries.remove(subject);
+			generation++;
+		}
+	}
+
+	public void invalidateAll() {
+		synchronized (entries) {
+			entries.clear();
+			generation++;
+		}
+	}
+
+	public Map<String, Object> stats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+		return Map.of(
+				"size", size,
+				"hits", hits.sum(),
+				"misses", misses.sum(),
+				"evictions", evictions.sum()
+		);
+	}
+}
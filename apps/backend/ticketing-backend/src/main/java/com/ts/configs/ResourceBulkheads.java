@@ -0,0 +1,138 @@
+package com.ts.configs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.ts.exceptions.ResourceBusyException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bounded semaphores for resources that request threads hit concurrently.
+ * Tomcat's pool caps how many requests run at once, but not how many of
+ * them pile up behind one slow resource. Today that is only attachment
+ * disk I/O: copying spooled multipart uploads into storage
+ * and adopting finished chunked uploads. Database work is already capped by
+ * the Hikari pool, and background jobs run on their own fixed pools. Callers
+ * give up after {@code acquireTimeoutMs} with a 503 instead of queueing
+ * without bound. A permit is reentrant per thread: work that already holds
+ * it can call into code that takes the same bulkhead without waiting for a
+ * second permit.
+ */
+@Component
+@ConfigurationProperties(prefix = "execution.bulkheads")
+public class ResourceBulkheads {
+
+	@Getter @Setter
+	private int disk = 16;
+
+	@Getter @Setter
+	private long acquireTimeoutMs = 5000;
+
+	private Bulkhead diskBulkhead;
+
+	@FunctionalInterface
+	public interface Work<T, E extends Exception> {
+		T call() throws E;
+	}
+
+	@FunctionalInterface
+	public interface VoidWork<E extends Exception> {
+		void run() throws E;
+	}
+
+	public final class Bulkhead {
+		private final String name;
+		private final int permits;
+		private final Semaphore semaphore;
+
+		private final LongAdder acquired = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder waitNanos = new LongAdder();
+
+		// how deep the current thread is inside this bulkhead
+		private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+		private Bulkhead(String name, int permits) {
+			this.name = name;
+			this.permits = Math.max(1, permits);
+			// fair, so a burst of new arrivals cannot starve earlier waiters
+			this.semaphore = new Semaphore(this.permits, true);
+		}
+
+		public <T, E extends Exception> T call(Work<T, E> work) throws E {
+			int[] held = depth.get();
+			if (held[0] == 0) {
+				acquire();
+			}
+			held[0]++;
+			try {
+				return work.call();
+			} finally {
+				if (--held[0] == 0) {
+					semaphore.release();
+				}
+			}
+		}
+
+		public <E extends Exception> void run(VoidWork<E> work) throws E {
+			call(() -> {
+				work.run();
+				return null;
+			});
+		}
+
+		private void acquire() {
+			long start = System.nanoTime();
+			boolean granted;
+			try {
+				granted = semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				granted = false;
+			}
+			waitNanos.add(System.nanoTime() - start);
+
+			if (!granted) {
+				rejected.increment();
+				throw new ResourceBusyException("Too many concurrent " + name + " operations, try again shortly");
+			}
+			acquired.increment();
+		}
+
+		private Map<String, Object> stats() {
+			long count = acquired.sum() + rejected.sum();
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("permits", permits);
+			stats.put("inUse", permits - semaphore.availablePermits());
+			stats.put("waiting", semaphore.getQueueLength());
+			stats.put("acquired", acquired.sum());
+			stats.put("rejected", rejected.sum());
+			stats.put("avgWaitMs", count == 0 ? 0.0 : waitNanos.sum() / 1_000_000.0 / count);
+			return stats;
+		}
+	}
+
+	@PostConstruct
+	void init() {
+		diskBulkhead = new Bulkhead("attachment storage", disk);
+	}
+
+	public Bulkhead disk() {
+		return diskBulkhead;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("disk", diskBulkhead.stats());
+		return stats;
+	}
+}
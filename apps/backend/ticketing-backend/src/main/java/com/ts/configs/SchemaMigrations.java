@@ -0,0 +1,126 @@
+package com.ts.configs;
+
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Data fixes that ddl-auto=update cannot express. Runs once the entity
+ * manager factory (and with it the schema update) is ready, before the
+ * application takes traffic. Every step is idempotent.
+ */
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrations {
+
+	private static final int BACKFILL_BATCH = 10_000;
+
+	private static final String TICKET_NUMBER_CONSTRAINT = "uk_tickets_ticket_number";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	// only here so the schema update has run first
+	private final EntityManagerFactory entityManagerFactory;
+
+	@PostConstruct
+	void migrate() {
+		backfillRecipientCreatedAt();
+		enforceUniqueTicketNumbers();
+	}
+
+	/*
+	 * notification_recipients.created_at copies notifications.created_at so the
+	 * inbox keyset can use idx_notification_recipients_inbox.
+	 */
+	private void backfillRecipientCreatedAt() {
+		long total = 0;
+		int updated;
+		do {
+			updated = jdbcTemplate.update("""
+					update notification_recipients nr
+					set created_at = n.created_at
+					from notifications n
+					where n.id = nr.notification_id
+					  and nr.id in (
+					      select r.id from notification_recipients r
+					      join notifications n2 on n2.id = r.notification_id
+					      where r.created_at is null
+					        and n2.created_at is not null
+					      limit ?)
+					""", BACKFILL_BATCH);
+			total += updated;
+		} while (updated == BACKFILL_BATCH);
+
+		if (total > 0) {
+			System.out.println("Backfilled created_at on " + total + " notification recipients");
+		}
+	}
+
+	/*
+	 * ddl-auto cannot add the unique constraint while duplicate ticket numbers
+	 * exist and only logs the failure. Rename the duplicates (the oldest row
+	 * keeps the number), add the constraint, and refuse to start without it.
+	 */
+	private void enforceUniqueTicketNumbers() {
+		if (!hasTicketNumberConstraint()) {
+			int renamed = jdbcTemplate.update("""
+					update tickets t
+					set ticket_number = t.ticket_number || '-DUP-' || t.id
+					from (
+					    select id, row_number() over (partition by ticket_number order by id) as rn
+					    from tickets
+					    where ticket_number is not null
+					) d
+					where d.id = t.id and d.rn > 1
+					""");
+			if (renamed > 0) {
+				System.out.println("Renamed " + renamed + " duplicate ticket numbers with a -DUP-<id> suffix");
+			}
+
+			try {
+				jdbcTemplate.execute("alter table tickets add constraint " + TICKET_NUMBER_CONSTRAINT
+						+ " unique (ticket_number)");
+			} catch (DataAccessException e) {
+				// another node may have added it first; the check below decides
+				System.out.println("Could not add " + TICKET_NUMBER_CONSTRAINT + ": " + e.getMessage());
+			}
+
+			if (!hasTicketNumberConstraint()) {
+				throw new IllegalStateException("Unique constraint " + TICKET_NUMBER_CONSTRAINT
+						+ " on tickets.ticket_number is missing and could not be created");
+			}
+		}
+
+		// unnamed copies left by earlier ddl-auto runs only cost index maintenance
+		List<String> redundant = jdbcTemplate.queryForList("""
+				select c.conname
+				from pg_constraint c
+				join pg_attribute a on a.attrelid = c.conrelid and a.attnum = any (c.conkey)
+				where c.conrelid = 'tickets'::regclass
+				  and c.contype = 'u'
+				  and cardinality(c.conkey) = 1
+				  and a.attname = 'ticket_number'
+				  and c.conname <> ?
+				""", String.class, TICKET_NUMBER_CONSTRAINT);
+		for (String name : redundant) {
+			jdbcTemplate.execute("alter table tickets drop constraint if exists \"" + name + "\"");
+		}
+	}
+
+	private boolean hasTicketNumberConstraint() {
+		Integer count = jdbcTemplate.queryForObject("""
+				select count(*)
+				from pg_constraint
+				where conrelid = 'tickets'::regclass
+				  and contype = 'u'
+				  and conname = ?
+				""", Integer.class, TICKET_NUMBER_CONSTRAINT);
+		return count != null && count > 0;
+	}
+}
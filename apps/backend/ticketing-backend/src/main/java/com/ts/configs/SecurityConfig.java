@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -33,10 +34,13 @@ public class SecurityConfig {
 				.authorizeHttpRequests(auth -> auth
 //						.requestMatchers("/**").permitAll()
 //						.requestMatchers("/**","/images/**").permitAll().anyRequest()
-						.requestMatchers("/api/auth/**","/images/**").permitAll()
+						// signed links carry their own authorization; the controller checks it
+						.requestMatchers(HttpMethod.GET, "/api/tickets/*/attachments/*/download").permitAll()
+						.requestMatchers("/api/auth/**").permitAll()
 						.requestMatchers("/api/tickets/**").hasAnyRole("ADMIN","HR","IT","NETWORK","SOFTWARE_ENGINEER")
 						.requestMatchers("/api/employees/**").hasAnyRole("ADMIN","HR","IT","NETWORK","SOFTWARE_ENGINEER")
 						.requestMatchers("/api/notifications/**").hasAnyRole("ADMIN","HR","IT","NETWORK","SOFTWARE_ENGINEER")
+						.requestMatchers("/api/metrics/**").hasRole("ADMIN")
 						.anyRequest().authenticated())
 				.userDetailsService(detailsService)
 				.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
@@ -25,6 +25,7 @@ public class WebConfig implements WebSocketMessageBrokerConfigurer {
     public void configureMessageBroker(MessageBrokerRegistry registry) {
 
         // server → client
+        // (per-node broker; NotificationBus relays user notifications across nodes)
         registry.enableSimpleBroker(
             "/topic",
             "/queue"
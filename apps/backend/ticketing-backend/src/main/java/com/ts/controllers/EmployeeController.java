@@ -1,11 +1,14 @@
 package com.ts.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,11 +16,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ts.dtos.EmployeeCreateRequest;
 import com.ts.dtos.EmployeeResponse;
+import com.ts.dtos.ImportResult;
+import com.ts.enums.ExportFormat;
 import com.ts.enums.Role;
+import com.ts.models.Employee;
+import com.ts.services.EmployeeImportService;
 import com.ts.services.EmployeeService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,6 +36,7 @@ import lombok.RequiredArgsConstructor;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeImportService employeeImportService;
     
     @GetMapping("/roles")
     public Role[] fetchRoles() {
@@ -41,6 +50,19 @@ public class EmployeeController {
         return employeeService.createEmployee(request);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/json", "text/plain"})
+    public ImportResult importEmployees(
+            InputStream body,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            Authentication auth
+    ) throws IOException {
+        Employee user = (Employee) auth.getPrincipal();
+        if (user.getRole() != Role.ADMIN) {
+            throw new RuntimeException("Access denied");
+        }
+        return employeeImportService.importEmployees(body, format);
+    }
+
     @GetMapping
     public List<EmployeeResponse> getAllEmployees() {
         return employeeService.getAll();
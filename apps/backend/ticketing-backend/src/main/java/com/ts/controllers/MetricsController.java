@@ -0,0 +1,68 @@
+package com.ts.controllers;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ts.configs.PrincipalCache;
+import com.ts.configs.ResourceBulkheads;
+import com.ts.exceptions.BadRequestException;
+import com.ts.services.AttachmentBlobCollector;
+import com.ts.services.AttachmentStorage;
+import com.ts.services.AttachmentThumbnailService;
+import com.ts.services.EmailOutboxDispatcher;
+import com.ts.services.NotificationRetentionService;
+import com.ts.services.TicketImportService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+	private final PrincipalCache principalCache;
+	private final EmailOutboxDispatcher emailOutboxDispatcher;
+	private final NotificationRetentionService retentionService;
+	private final TicketImportService ticketImportService;
+	private final AttachmentStorage storage;
+	private final AttachmentThumbnailService thumbnailService;
+	private final AttachmentBlobCollector blobCollector;
+	private final ResourceBulkheads bulkheads;
+
+	@GetMapping
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("principalCache", principalCache.stats());
+		metrics.put("emailOutbox", emailOutboxDispatcher.stats());
+		metrics.put("notificationRetention", retentionService.stats());
+		metrics.put("ticketImport", ticketImportService.progress());
+		metrics.put("attachmentBlobs", storage.stats());
+		metrics.put("attachmentThumbnails", thumbnailService.stats());
+		metrics.put("attachmentBlobCollector", blobCollector.stats());
+		metrics.put("bulkheads", bulkheads.stats());
+		return metrics;
+	}
+
+	@PostMapping("/notification-retention/run")
+	public Map<String, Object> runNotificationRetention() {
+		return retentionService.runOnce();
+	}
+
+	@GetMapping("/attachment-blobs/{hash}/verify")
+	public Map<String, Object> verifyBlob(@PathVariable String hash) throws IOException {
+		if (!hash.matches("[0-9a-f]{64}")) {
+			throw new BadRequestException("hash must be 64 lowercase hex characters");
+		}
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("hash", hash);
+		result.put("intact", storage.verify(hash));
+		return result;
+	}
+}
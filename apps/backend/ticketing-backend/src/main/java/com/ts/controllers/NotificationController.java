@@ -1,15 +1,21 @@
 package com.ts.controllers;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ts.dtos.CursorPage;
+import com.ts.dtos.NotificationInboxItem;
+import com.ts.enums.NotificationType;
 import com.ts.models.Employee;
 import com.ts.services.NotificationService;
 
@@ -22,6 +28,24 @@ public class NotificationController {
 
 	private final NotificationService notificationService;
 	
+	@GetMapping("/inbox")
+	public CursorPage<NotificationInboxItem> getInbox(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size,
+			@RequestParam(defaultValue = "false") boolean unreadOnly,
+			@RequestParam(required = false) NotificationType type,
+			Authentication auth
+	) {
+		Employee emp = (Employee) auth.getPrincipal();
+		return notificationService.getInboxPage(emp, cursor, size, unreadOnly, type);
+	}
+	
+	@GetMapping("/unread-count")
+	public Map<String, Long> getUnreadCount(Authentication auth) {
+		Employee emp = (Employee) auth.getPrincipal();
+		return Map.of("count", notificationService.getUnreadCount(emp));
+	}
+	
 	@PostMapping("/recipient/{id}/mark-read")
 	public ResponseEntity<?> markRead(@PathVariable Long id, Authentication auth) {
 		System.out.println("in mark read method");
@@ -34,8 +58,15 @@ public class NotificationController {
 	public ResponseEntity<?> markRead(Authentication auth) {
 		System.out.println("in mark read all method");
 		Employee emp = (Employee) auth.getPrincipal();
-		notificationService.markAllAsRead(emp);
-		return ResponseEntity.ok("Marked read");
+		int updated = notificationService.markAllAsRead(emp);
+		return ResponseEntity.ok(Map.of("updated", updated));
+	}
+	
+	@PostMapping("/recipient/mark-read")
+	public ResponseEntity<?> markRead(@RequestBody List<Long> notificationIds, Authentication auth) {
+		Employee emp = (Employee) auth.getPrincipal();
+		int updated = notificationService.markAsRead(notificationIds, emp);
+		return ResponseEntity.ok(Map.of("updated", updated));
 	}
 	
 }
@@ -1,20 +1,35 @@
 package com.ts.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.ts.dtos.ChunkedUploadRequest;
+import com.ts.dtos.ChunkedUploadStatus;
+import com.ts.dtos.DownloadLinkResponse;
 import com.ts.dtos.TicketAttachmentResponse;
+import com.ts.enums.AttachmentRendition;
 import com.ts.models.Employee;
 import com.ts.models.TicketAttachment;
+import com.ts.services.ChunkedUploadService;
 import com.ts.services.TicketAttachmentService;
+import com.ts.utils.FileRangeResponder;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class TicketAttachmentController {
 
     private final TicketAttachmentService attachmentService;
+    private final ChunkedUploadService chunkedUploadService;
 
     @PostMapping
     public void upload(
@@ -34,6 +50,142 @@ public class TicketAttachmentController {
         attachmentService.upload(ticketId, files, (Employee) auth.getPrincipal());
     }
     
+    /* ---------- resumable chunked upload: initiate, PUT chunks, complete ---------- */
+
+    @PostMapping("/uploads")
+    public ChunkedUploadStatus initiateUpload(
+            @PathVariable Long ticketId,
+            @RequestBody ChunkedUploadRequest request,
+            Authentication auth
+    ) throws IOException {
+        return chunkedUploadService.initiate(ticketId, request, (Employee) auth.getPrincipal());
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ChunkedUploadStatus uploadStatus(
+            @PathVariable Long ticketId,
+            @PathVariable String uploadId,
+            Authentication auth
+    ) {
+        return chunkedUploadService.status(ticketId, uploadId, (Employee) auth.getPrincipal());
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}", consumes = "application/octet-stream")
+    public ChunkedUploadStatus uploadChunk(
+            @PathVariable Long ticketId,
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            @RequestHeader(value = "X-Chunk-SHA256", required = false) String chunkSha256,
+            InputStream body,
+            Authentication auth
+    ) throws IOException {
+        return chunkedUploadService.writeChunk(ticketId, uploadId, offset, chunkSha256, body,
+                (Employee) auth.getPrincipal());
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public TicketAttachmentResponse completeUpload(
+            @PathVariable Long ticketId,
+            @PathVariable String uploadId,
+            Authentication auth
+    ) throws IOException {
+        return chunkedUploadService.complete(ticketId, uploadId, (Employee) auth.getPrincipal());
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public void abortUpload(
+            @PathVariable Long ticketId,
+            @PathVariable String uploadId,
+            Authentication auth
+    ) {
+        chunkedUploadService.abort(ticketId, uploadId, (Employee) auth.getPrincipal());
+    }
+
+    /**
+     * A short-lived signed URL for the download endpoint, for the browser to
+     * open directly instead of buffering the file in a Blob.
+     */
+    @PostMapping("/{attachmentId}/download-link")
+    public DownloadLinkResponse downloadLink(
+            @PathVariable Long ticketId,
+            @PathVariable Long attachmentId,
+            Authentication auth
+    ) {
+        return attachmentService.createDownloadLink(ticketId, attachmentId, (Employee) auth.getPrincipal());
+    }
+
+    /**
+     * Streams the file with Range support. Content-addressed blobs never change,
+     * so they get a strong ETag from the hash and can be cached indefinitely.
+     * Open to requests without a token when they carry a valid signed link.
+     */
+    @GetMapping("/{attachmentId}/download")
+    public void download(
+            @PathVariable Long ticketId,
+            @PathVariable Long attachmentId,
+            @RequestParam(required = false) Long expires,
+            @RequestParam(required = false) String signature,
+            Authentication auth,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        TicketAttachmentService.DownloadTarget target;
+        if (signature != null && expires != null) {
+            target = attachmentService.resolveSignedDownload(ticketId, attachmentId, expires, signature);
+        } else if (auth != null && auth.getPrincipal() instanceof Employee user) {
+            target = attachmentService.resolveDownload(ticketId, attachmentId, user);
+        } else {
+            throw new RuntimeException("Access denied");
+        }
+
+        String etag = target.getContentHash() != null ? "\"" + target.getContentHash() + "\"" : null;
+        String cacheControl = etag != null ? "private, max-age=31536000, immutable" : "private, no-cache";
+
+        FileRangeResponder.serve(target.getLength(), target.getFile(), target.getSource(), etag, cacheControl,
+                target.getContentType(), target.getFileName(), request, response);
+    }
+
+    @GetMapping("/{attachmentId}/thumbnail")
+    public void thumbnail(
+            @PathVariable Long ticketId,
+            @PathVariable Long attachmentId,
+            Authentication auth,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        serveRendition(ticketId, attachmentId, AttachmentRendition.THUMBNAIL, auth, request, response);
+    }
+
+    @GetMapping("/{attachmentId}/preview")
+    public void preview(
+            @PathVariable Long ticketId,
+            @PathVariable Long attachmentId,
+            Authentication auth,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        serveRendition(ticketId, attachmentId, AttachmentRendition.PREVIEW, auth, request, response);
+    }
+
+    private void serveRendition(Long ticketId, Long attachmentId, AttachmentRendition rendition,
+            Authentication auth, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TicketAttachmentService.DownloadTarget target = attachmentService.resolveRendition(
+                ticketId, attachmentId, rendition, (Employee) auth.getPrincipal());
+
+        FileRangeResponder.serve(target.getLength(), target.getFile(), target.getSource(),
+                "\"" + target.getContentHash() + "\"", "private, max-age=31536000, immutable",
+                target.getContentType(), target.getFileName(), request, response);
+    }
+
+    @DeleteMapping("/{attachmentId}")
+    public void delete(
+            @PathVariable Long ticketId,
+            @PathVariable Long attachmentId,
+            Authentication auth
+    ) {
+        attachmentService.delete(ticketId, attachmentId, (Employee) auth.getPrincipal());
+    }
+
     @GetMapping
     public List<TicketAttachmentResponse> getAllAttachments(@PathVariable Long ticketId){
     	var atts =  attachmentService.fetchAllAttachmentsByTicketId(ticketId);
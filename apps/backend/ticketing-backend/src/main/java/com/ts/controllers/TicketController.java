@@ -1,7 +1,12 @@
 package com.ts.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,13 +17,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ts.dtos.CursorPage;
+import com.ts.dtos.ImportJobResponse;
 import com.ts.dtos.TicketCreateRequest;
 import com.ts.dtos.TicketDetailResponse;
 import com.ts.dtos.TicketResponse;
+import com.ts.dtos.TicketSearchResult;
+import com.ts.dtos.TicketStatsResponse;
+import com.ts.enums.ExportFormat;
+import com.ts.enums.Priority;
+import com.ts.enums.Role;
+import com.ts.enums.TicketCategory;
 import com.ts.enums.TicketStatus;
 import com.ts.models.Employee;
+import com.ts.services.TicketImportService;
+import com.ts.services.TicketSearchService;
 import com.ts.services.TicketService;
+import com.ts.services.TicketStatsService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,6 +45,9 @@ import lombok.RequiredArgsConstructor;
 public class TicketController {
 
 	private final TicketService ticketService;
+	private final TicketSearchService searchService;
+	private final TicketStatsService statsService;
+	private final TicketImportService ticketImportService;
 	
 	@GetMapping("/statuses")
 	public TicketStatus[] getAllStatuses() {
@@ -55,6 +75,81 @@ public class TicketController {
 		return tickets;
 	}
 	
+	@GetMapping("/page")
+	public CursorPage<TicketResponse> getTicketPage(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size,
+			@RequestParam(required = false) TicketStatus status,
+			@RequestParam(required = false) TicketCategory category,
+			@RequestParam(required = false) Priority priority,
+			@RequestParam(required = false) Long assigneeId,
+			Authentication auth
+	) {
+		Employee user = (Employee) auth.getPrincipal();
+		return ticketService.fetchTicketPage(user, cursor, size, status, category, priority, assigneeId);
+	}
+	
+	@GetMapping("/stats")
+	public TicketStatsResponse getStats(Authentication auth) {
+		Employee user = (Employee) auth.getPrincipal();
+		if (user.getRole() != Role.ADMIN) {
+			throw new RuntimeException("Access denied");
+		}
+		return statsService.snapshot();
+	}
+	
+	@GetMapping("/search")
+	public List<TicketSearchResult> searchTickets(
+			@RequestParam String q,
+			@RequestParam(required = false) Integer limit,
+			Authentication auth
+	) {
+		Employee user = (Employee) auth.getPrincipal();
+		return searchService.search(q, limit, user);
+	}
+	
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportTickets(
+			@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+			@RequestParam(required = false) TicketStatus status,
+			@RequestParam(required = false) TicketCategory category,
+			@RequestParam(required = false) Priority priority,
+			Authentication auth
+	) {
+		Employee user = (Employee) auth.getPrincipal();
+
+		String fileName = format == ExportFormat.CSV ? "tickets.csv" : "tickets.ndjson";
+		MediaType contentType = format == ExportFormat.CSV
+				? MediaType.parseMediaType("text/csv")
+				: MediaType.APPLICATION_NDJSON;
+
+		StreamingResponseBody body = out ->
+				ticketService.exportTickets(user, format, status, category, priority, out);
+
+		return ResponseEntity.ok()
+				.contentType(contentType)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+				.body(body);
+	}
+	
+	@PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/json", "text/plain"})
+	public ResponseEntity<ImportJobResponse> importTickets(InputStream body, Authentication auth) throws IOException {
+		Employee user = (Employee) auth.getPrincipal();
+		if (user.getRole() != Role.ADMIN) {
+			throw new RuntimeException("Access denied");
+		}
+		return ResponseEntity.accepted().body(ticketImportService.submit(body));
+	}
+
+	@GetMapping("/import/{jobId}")
+	public ImportJobResponse getImportJob(@PathVariable String jobId, Authentication auth) {
+		Employee user = (Employee) auth.getPrincipal();
+		if (user.getRole() != Role.ADMIN) {
+			throw new RuntimeException("Access denied");
+		}
+		return ticketImportService.getJob(jobId);
+	}
+	
 	@GetMapping("/live")
 	public List<TicketResponse> getLiveTickets(Authentication auth) {
 		Employee user = (Employee) auth.getPrincipal();
@@ -0,0 +1,11 @@
+package com.ts.dtos;
+
+import lombok.Data;
+
+@Data
+public class ChunkedUploadRequest {
+    private String fileName;
+    private Long size;
+    // optional SHA-256 (hex) of the whole file, checked on complete
+    private String sha256;
+}
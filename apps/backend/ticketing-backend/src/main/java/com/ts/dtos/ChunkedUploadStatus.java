@@ -0,0 +1,22 @@
+package com.ts.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadStatus {
+    private String uploadId;
+    private String fileName;
+    private long size;
+    private long chunkSize;
+    private long receivedBytes;
+    // first byte not yet received, where a sequential client resumes
+    private long nextOffset;
+    // received byte ranges as [start, end) pairs
+    private List<long[]> ranges;
+}
@@ -0,0 +1,12 @@
+package com.ts.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CommentIndexRow {
+    private Long ticketId;
+    private String comment;
+    private Boolean isInternal;
+}
@@ -0,0 +1,13 @@
+package com.ts.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DownloadLinkResponse {
+    // relative to the API base; works without the Authorization header until expiresAt
+    private String url;
+    // epoch seconds
+    private long expiresAt;
+}
@@ -0,0 +1,12 @@
+package com.ts.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EmployeeKeyRow {
+    private Long id;
+    private String email;
+    private String employeeCode;
+}
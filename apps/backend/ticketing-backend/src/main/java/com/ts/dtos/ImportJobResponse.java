@@ -0,0 +1,19 @@
+package com.ts.dtos;
+
+import com.ts.enums.ImportJobStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private ImportJobStatus status;
+    private long processed;
+    private long imported;
+    private long failed;
+    // set once the job has finished
+    private ImportResult result;
+    private String error;
+}
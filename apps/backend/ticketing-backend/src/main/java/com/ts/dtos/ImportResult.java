@@ -0,0 +1,16 @@
+package com.ts.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ImportResult {
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<String> errors = new ArrayList<>();
+    private long durationMs;
+    private double recordsPerSecond;
+}
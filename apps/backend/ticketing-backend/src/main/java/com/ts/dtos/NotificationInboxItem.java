@@ -0,0 +1,24 @@
+package com.ts.dtos;
+
+import java.time.LocalDateTime;
+
+import com.ts.enums.NotificationType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationInboxItem {
+    private Long recipientId;
+    private Long notificationId;
+    private String title;
+    private String message;
+    private NotificationType type;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+    private Long ticketId;
+    private String ticketNumber;
+}
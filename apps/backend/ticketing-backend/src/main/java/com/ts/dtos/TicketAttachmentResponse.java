@@ -3,7 +3,9 @@ package com.ts.dtos;
 import java.time.LocalDateTime;
 
 import com.ts.models.Employee;
+import com.ts.enums.RenditionStatus;
 import com.ts.models.TicketAttachment;
+import com.ts.utils.ImageFormats;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,6 +20,9 @@ public class TicketAttachmentResponse {
     private Long size;
     private EmployeeSummary uploadedBy;
     private LocalDateTime uploadedAt;
+    // relative to the API base; left out once rendering has failed
+    private String thumbnailUrl;
+    private String previewUrl;
     
 	public TicketAttachmentResponse(Long id, String fileName, String fileUrl, Long size, EmployeeSummary uploadedBy,
 			LocalDateTime uploadedAt) {
@@ -33,7 +38,14 @@ public class TicketAttachmentResponse {
     
     
     public static TicketAttachmentResponse toDto(TicketAttachment att) {
-    	return new TicketAttachmentResponse(att.getId(),att.getFileName(),att.getFileUrl(),att.getSize(),att.getUploadedBy()!=null?EmployeeSummary.toDto(att.getUploadedBy()):null,att.getUploadedAt());
+    	TicketAttachmentResponse r = new TicketAttachmentResponse(att.getId(),att.getFileName(),att.getFileUrl(),att.getSize(),att.getUploadedBy()!=null?EmployeeSummary.toDto(att.getUploadedBy()):null,att.getUploadedAt());
+    	if (att.getContentHash() != null && att.getTicket() != null && ImageFormats.canRender(att.getFileName())
+    			&& att.getRenditionStatus() != RenditionStatus.FAILED) {
+    		String base = "/tickets/" + att.getTicket().getId() + "/attachments/" + att.getId();
+    		r.setThumbnailUrl(base + "/thumbnail");
+    		r.setPreviewUrl(base + "/preview");
+    	}
+    	return r;
     }
 
 
@@ -0,0 +1,16 @@
+package com.ts.dtos;
+
+import com.ts.enums.TicketCategory;
+import com.ts.enums.TicketStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TicketCountRow {
+    private TicketStatus status;
+    private TicketCategory category;
+    private Integer priority;
+    private Long count;
+}
@@ -0,0 +1,47 @@
+package com.ts.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.ts.enums.TicketCategory;
+import com.ts.enums.TicketStatus;
+
+import lombok.Data;
+
+/**
+ * One NDJSON line of a bulk ticket import. Employee references may be an
+ * email or an employee code.
+ */
+@Data
+public class TicketImportRecord {
+    private String ticketNumber;
+    private String title;
+    private String description;
+    private TicketCategory category;
+    private TicketStatus status;
+    private Integer priority;
+    private String createdBy;
+    private String assignedTo;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime resolvedAt;
+    private List<CommentRecord> comments;
+    private List<AttachmentRecord> attachments;
+
+    @Data
+    public static class CommentRecord {
+        private String comment;
+        private Boolean isInternal;
+        private String commentedBy;
+        private LocalDateTime commentedAt;
+    }
+
+    @Data
+    public static class AttachmentRecord {
+        private String fileName;
+        private String fileUrl;
+        private Long size;
+        private String uploadedBy;
+        private LocalDateTime uploadedAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ts.dtos;
+
+import com.ts.enums.TicketCategory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TicketIndexRow {
+    private Long id;
+    private String title;
+    private String description;
+    private TicketCategory category;
+    private Long createdById;
+}
@@ -3,12 +3,15 @@ package com.ts.dtos;
 import java.time.LocalDateTime;
 
 import com.ts.enums.Priority;
+import com.ts.enums.Role;
 import com.ts.enums.TicketCategory;
 import com.ts.enums.TicketStatus;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class TicketResponse {
     private Long id;
     private String ticketNumber;
@@ -25,4 +28,29 @@ public class TicketResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime resolvedAt;
+
+    /**
+     * Flat constructor used by JPQL constructor expressions in TicketRepository,
+     * so list views are read straight into DTOs without managed entities.
+     */
+    public TicketResponse(Long id, String ticketNumber, String title, String description,
+            TicketCategory category, TicketStatus status, Integer priority,
+            Long createdById, String createdByName, String createdByEmail, Role createdByRole,
+            Long assignedToId, String assignedToName, String assignedToEmail, Role assignedToRole,
+            LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime resolvedAt) {
+        this.id = id;
+        this.ticketNumber = ticketNumber;
+        this.title = title;
+        this.description = description;
+        this.category = category;
+        this.status = status;
+        this.priority = priority == null ? null : Priority.fromLevel(priority);
+        this.createdBy = createdById == null ? null
+                : new EmployeeSummary(createdById, createdByName, createdByEmail, createdByRole);
+        this.assignedTo = assignedToId == null ? null
+                : new EmployeeSummary(assignedToId, assignedToName, assignedToEmail, assignedToRole);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.resolvedAt = resolvedAt;
+    }
 }
@@ -0,0 +1,13 @@
+package com.ts.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSearchResult {
+    private TicketResponse ticket;
+    private Double score;
+}
@@ -0,0 +1,21 @@
+package com.ts.dtos;
+
+import java.util.Map;
+
+import com.ts.enums.Priority;
+import com.ts.enums.TicketCategory;
+import com.ts.enums.TicketStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketStatsResponse {
+    private Long total;
+    private Map<TicketStatus, Long> byStatus;
+    private Map<TicketCategory, Map<TicketStatus, Long>> byCategory;
+    private Map<Priority, Map<TicketStatus, Long>> byPriority;
+}
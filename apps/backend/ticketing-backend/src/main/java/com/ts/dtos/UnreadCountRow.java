@@ -0,0 +1,11 @@
+package com.ts.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UnreadCountRow {
+    private Long employeeId;
+    private Long count;
+}
@@ -0,0 +1,6 @@
+package com.ts.enums;
+
+public enum AttachmentRendition {
+    THUMBNAIL,
+    PREVIEW
+}
@@ -0,0 +1,8 @@
+package com.ts.enums;
+
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,6 @@
+package com.ts.enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,7 @@
+package com.ts.enums;
+
+public enum RenditionStatus {
+    PENDING,
+    READY,
+    FAILED
+}
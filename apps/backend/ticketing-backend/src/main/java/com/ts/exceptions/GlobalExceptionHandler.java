@@ -29,4 +29,32 @@ public class GlobalExceptionHandler {
 		error.put("status", HttpStatus.CONFLICT.value());
 		return new ResponseEntity<>(error,HttpStatus.CONFLICT);
 	}
+	
+	// only our own validation failures: other exceptions' messages are not meant for clients
+	@ExceptionHandler(BadRequestException.class)
+	public ResponseEntity<Map<String, Object>> handleBadRequest(BadRequestException ex) {
+		Map<String, Object> error = new HashMap<>();
+		error.put("timestamp", LocalDateTime.now());
+		error.put("message", ex.getMessage());
+		error.put("status", HttpStatus.BAD_REQUEST.value());
+		return new ResponseEntity<>(error,HttpStatus.BAD_REQUEST);
+	}
+	
+	@ExceptionHandler(ResourceBusyException.class)
+	public ResponseEntity<Map<String, Object>> handleResourceBusy(ResourceBusyException ex) {
+		Map<String, Object> error = new HashMap<>();
+		error.put("timestamp", LocalDateTime.now());
+		error.put("message", ex.getMessage());
+		error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(error);
+	}
+	
+	@ExceptionHandler(RenditionPendingException.class)
+	public ResponseEntity<Map<String, Object>> handleRenditionPending(RenditionPendingException ex) {
+		Map<String, Object> error = new HashMap<>();
+		error.put("timestamp", LocalDateTime.now());
+		error.put("message", ex.getMessage());
+		error.put("status", HttpStatus.ACCEPTED.value());
+		return ResponseEntity.status(HttpStatus.ACCEPTED).header("Retry-After", "2").body(error);
+	}
 }
@@ -0,0 +1,8 @@
+package com.ts.exceptions;
+
+public class InvalidCursorException extends BadRequestException{
+
+	public InvalidCursorException(String message) {
+		super(message);
+	}
+}
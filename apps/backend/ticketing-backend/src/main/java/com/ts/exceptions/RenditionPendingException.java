@@ -0,0 +1,8 @@
+package com.ts.exceptions;
+
+public class RenditionPendingException extends RuntimeException{
+
+	public RenditionPendingException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,8 @@
+package com.ts.exceptions;
+
+public class ResourceBusyException extends RuntimeException{
+
+	public ResourceBusyException(String message) {
+		super(message);
+	}
+}
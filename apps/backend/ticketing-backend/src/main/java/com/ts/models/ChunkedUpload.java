@@ -0,0 +1,51 @@
+package com.ts.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A resumable upload in progress. The bytes sit in
+ * {@code files.path/chunked/<id>.part}; the row is what lets any node take
+ * the next chunk.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(
+    name = "chunked_uploads",
+    indexes = {
+        @Index(name = "idx_chunked_uploads_last_touched", columnList = "lastTouched")
+    }
+)
+public class ChunkedUpload {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private Long ticketId;
+    private Long employeeId;
+    private String fileName;
+    private long size;
+
+    @Column(length = 64)
+    private String expectedSha256;
+
+    // received byte ranges, merged: "start-end,start-end" with end exclusive
+    @Column(columnDefinition = "text")
+    private String receivedRanges;
+
+    // bumped whenever bytes inside the received prefix are rewritten
+    private long overwrites;
+
+    private boolean completing;
+
+    private LocalDateTime lastTouched;
+}
@@ -12,7 +12,12 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "notifications")
+@Table(
+    name = "notifications",
+    indexes = {
+        @Index(name = "idx_notifications_created_at_id", columnList = "createdAt, id")
+    }
+)
 public class Notification {
 
     @Id
@@ -0,0 +1,42 @@
+package com.ts.models;
+
+import java.time.LocalDateTime;
+
+import com.ts.enums.NotificationType;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Read notification receipts moved out of the hot tables by the retention job.
+ * The id is the original notification_recipients id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "notification_archive",
+    indexes = {
+        @Index(name = "idx_notification_archive_employee", columnList = "employeeId, createdAt")
+    }
+)
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    private Long notificationId;
+    private Long employeeId;
+    private Long ticketId;
+
+    private String title;
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,41 @@
+package com.ts.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A bus message too large for NOTIFY. Only its id goes over the channel;
+ * every node reads the payload back from here until it is purged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+	name = "notification_bus_payloads",
+	indexes = {
+		@Index(name = "idx_notification_bus_payloads_created", columnList = "createdAt")
+	}
+)
+public class NotificationBusPayload {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false, columnDefinition = "text")
+	private String payload;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+}
@@ -13,6 +13,11 @@ import lombok.*;
     name = "notification_recipients",
     uniqueConstraints = {
         @UniqueConstraint(columnNames = {"notification_id", "employee_id"})
+    },
+    indexes = {
+        @Index(name = "idx_notification_recipients_employee_read", columnList = "employee_id, isRead"),
+        // the inbox keyset: one range scan per page, no join or sort over the whole inbox
+        @Index(name = "idx_notification_recipients_inbox", columnList = "employee_id, createdAt desc, id desc")
     }
 )
 public class NotificationRecipient {
@@ -30,4 +35,7 @@ public class NotificationRecipient {
     private Boolean isRead = false;
 
     private LocalDateTime readAt;
+
+    // copy of notification.createdAt, so the inbox can be ordered by this table's index
+    private LocalDateTime createdAt;
 }
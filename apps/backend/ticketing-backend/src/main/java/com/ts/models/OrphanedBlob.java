@@ -0,0 +1,29 @@
+package com.ts.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A blob that may have lost its last attachment. The blob collector deletes
+ * it once the grace period has passed and nothing references it again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "orphaned_blobs")
+public class OrphanedBlob {
+
+	@Id
+	@Column(length = 64)
+	private String contentHash;
+
+	private LocalDateTime releasedAt;
+}
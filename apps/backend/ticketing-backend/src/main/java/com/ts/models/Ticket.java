@@ -12,9 +12,11 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -23,7 +25,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tickets")
+@Table(
+    name = "tickets",
+    uniqueConstraints = {
+        // created and verified by SchemaMigrations, which first dedupes old rows
+        @UniqueConstraint(name = "uk_tickets_ticket_number", columnNames = "ticketNumber")
+    },
+    indexes = {
+        @Index(name = "idx_tickets_updated_at_id", columnList = "updatedAt, id")
+    }
+)
 public class Ticket {
 
     @Id
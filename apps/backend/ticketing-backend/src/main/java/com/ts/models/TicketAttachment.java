@@ -2,10 +2,16 @@ package com.ts.models;
 
 import java.time.LocalDateTime;
 
+import com.ts.enums.RenditionStatus;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -16,7 +22,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "ticket_attachments")
+@Table(
+    name = "ticket_attachments",
+    indexes = {
+        @Index(name = "idx_ticket_attachments_content_hash", columnList = "contentHash")
+    }
+)
 public class TicketAttachment {
 
     @Id
@@ -26,6 +37,10 @@ public class TicketAttachment {
     private String fileName;
     private String fileUrl;
 
+    // SHA-256 of the bytes; names the blob under files.path/blobs
+    @Column(length = 64)
+    private String contentHash;
+
     @ManyToOne
     private Ticket ticket;
     
@@ -36,5 +51,10 @@ public class TicketAttachment {
 
 
     private LocalDateTime uploadedAt;
+
+    // thumbnail/preview state of the blob; null for non-images and older rows
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RenditionStatus renditionStatus;
     
 }
@@ -0,0 +1,35 @@
+package com.ts.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.ts.models.ChunkedUpload;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface ChunkedUploadRepository extends JpaRepository<ChunkedUpload, String> {
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select u from ChunkedUpload u where u.id = :id")
+	Optional<ChunkedUpload> findForUpdate(@Param("id") String id);
+
+	// -2 = SKIP LOCKED: an upload taking a chunk right now is not idle
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+			select u from ChunkedUpload u
+			where u.lastTouched < :cutoff
+			order by u.lastTouched
+			""")
+	List<ChunkedUpload> claimIdle(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+}
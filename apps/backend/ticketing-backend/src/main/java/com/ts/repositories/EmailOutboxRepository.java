@@ -0,0 +1,44 @@
+package com.ts.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.ts.enums.EmailStatus;
+import com.ts.models.EmailOutbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+	// -2 = SKIP LOCKED, so several dispatchers never claim the same rows.
+	// SENDING rows are due again once their lease (nextAttemptAt) has run out.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+			select e from EmailOutbox e
+			where e.status in (com.ts.enums.EmailStatus.PENDING, com.ts.enums.EmailStatus.SENDING)
+			  and e.nextAttemptAt <= :now
+			order by e.id
+			""")
+	List<EmailOutbox> claimDue(@Param("now") LocalDateTime now, Limit limit);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+			select e from EmailOutbox e
+			where e.id in :ids
+			  and e.status = com.ts.enums.EmailStatus.SENDING
+			  and e.nextAttemptAt = :leaseUntil
+			""")
+	List<EmailOutbox> findLeased(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+	long countByStatus(EmailStatus status);
+
+}
@@ -4,7 +4,9 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.ts.dtos.EmployeeKeyRow;
 import com.ts.dtos.EmployeeResponse;
 import com.ts.enums.Role;
 import com.ts.models.Employee;
@@ -21,4 +23,7 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 	
 	Optional<Employee> findByRole(Role role);
 
+	@Query("select new com.ts.dtos.EmployeeKeyRow(e.id, e.email, e.employeeCode) from Employee e")
+	List<EmployeeKeyRow> findAllKeys();
+
 }
@@ -0,0 +1,48 @@
+package com.ts.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ts.models.NotificationArchive;
+
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+	/**
+	 * Moves up to {@code batchSize} read receipts of notifications created
+	 * before {@code cutoff} into notification_archive in one statement.
+	 */
+	@Transactional
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			with moved as (
+			    delete from notification_recipients nr
+			    where nr.id in (
+			        select r.id
+			        from notification_recipients r
+			        join notifications n on n.id = r.notification_id
+			        where r.is_read = true
+			          and n.created_at < :cutoff
+			        order by r.id
+			        limit :batchSize
+			        for update of r skip locked
+			    )
+			    returning nr.id, nr.notification_id, nr.employee_id, nr.read_at
+			)
+			insert into notification_archive
+			    (id, notification_id, employee_id, ticket_id, title, message, type, created_at, read_at, archived_at)
+			select m.id, m.notification_id, m.employee_id, n.ticket_id, n.title, n.message, n.type,
+			       n.created_at, m.read_at, :archivedAt
+			from moved m
+			join notifications n on n.id = m.notification_id
+			""")
+	int archiveReadBefore(
+			@Param("cutoff") LocalDateTime cutoff,
+			@Param("archivedAt") LocalDateTime archivedAt,
+			@Param("batchSize") int batchSize);
+
+}
@@ -0,0 +1,20 @@
+package com.ts.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ts.models.NotificationBusPayload;
+
+public interface NotificationBusPayloadRepository extends JpaRepository<NotificationBusPayload, Long> {
+
+	@Modifying
+	@Transactional
+	@Query("delete from NotificationBusPayload p where p.createdAt < :cutoff")
+	int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+}
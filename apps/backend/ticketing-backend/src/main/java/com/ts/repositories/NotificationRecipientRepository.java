@@ -1,15 +1,38 @@
 package com.ts.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.ts.dtos.NotificationInboxItem;
+import com.ts.dtos.UnreadCountRow;
+import com.ts.enums.NotificationType;
 import com.ts.models.Employee;
 import com.ts.models.NotificationRecipient;
 
 public interface NotificationRecipientRepository extends JpaRepository<NotificationRecipient, Long> {
 
+	String INBOX_SELECT = """
+			select new com.ts.dtos.NotificationInboxItem(
+			    nr.id, n.id, n.title, n.message, n.type, nr.isRead, nr.createdAt, t.id, t.ticketNumber)
+			from NotificationRecipient nr
+			join nr.notification n
+			left join n.ticket t
+			where nr.employee.id = :employeeId
+			  and (:unreadOnly = false or nr.isRead = false)
+			  and (:type is null or n.type = :type)
+			""";
+
+	// matches idx_notification_recipients_inbox (employee_id, created_at desc, id desc)
+	String INBOX_ORDER = " order by nr.createdAt desc, nr.id desc";
+
 	List<NotificationRecipient>
 	findByEmployeeOrderByNotificationCreatedAtDesc(Employee employee);
 
@@ -21,4 +44,57 @@ public interface NotificationRecipientRepository extends JpaRepository<Notificat
 
 	Optional<NotificationRecipient>
 	findByNotificationIdAndEmployee(Long notificationId, Employee employee);
+
+	@Query("""
+			select new com.ts.dtos.UnreadCountRow(nr.employee.id, count(nr))
+			from NotificationRecipient nr
+			where nr.isRead = false
+			group by nr.employee.id
+			""")
+	List<UnreadCountRow> countUnreadByEmployee();
+
+	/* ================= BULK READ RECEIPTS ================= */
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			update NotificationRecipient nr
+			set nr.isRead = true, nr.readAt = :readAt
+			where nr.employee.id = :employeeId
+			  and nr.isRead = false
+			""")
+	int markAllRead(@Param("employeeId") Long employeeId, @Param("readAt") LocalDateTime readAt);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			update NotificationRecipient nr
+			set nr.isRead = true, nr.readAt = :readAt
+			where nr.employee.id = :employeeId
+			  and nr.isRead = false
+			  and nr.notification.id in :notificationIds
+			""")
+	int markRead(
+			@Param("employeeId") Long employeeId,
+			@Param("notificationIds") Collection<Long> notificationIds,
+			@Param("readAt") LocalDateTime readAt);
+
+	/* ================= KEYSET INBOX ================= */
+
+	@Query(INBOX_SELECT + INBOX_ORDER)
+	List<NotificationInboxItem> findInboxFirstPage(
+			@Param("employeeId") Long employeeId,
+			@Param("unreadOnly") boolean unreadOnly,
+			@Param("type") NotificationType type,
+			Limit limit);
+
+	@Query(INBOX_SELECT + """
+			  and nr.createdAt <= :cursorCreatedAt
+			  and (nr.createdAt < :cursorCreatedAt or nr.id < :cursorId)
+			""" + INBOX_ORDER)
+	List<NotificationInboxItem> findInboxPageAfter(
+			@Param("employeeId") Long employeeId,
+			@Param("unreadOnly") boolean unreadOnly,
+			@Param("type") NotificationType type,
+			@Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+			@Param("cursorId") Long cursorId,
+			Limit limit);
 }
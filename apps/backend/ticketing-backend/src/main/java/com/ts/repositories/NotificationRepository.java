@@ -1,6 +1,12 @@
 package com.ts.repositories;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ts.models.Notification;
 
@@ -12,4 +18,23 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 //
 //	List<Notification> findByRecipientsAndIsReadFalseOrderByCreatedAtDesc(Employee recipient);
 
+	/**
+	 * Deletes up to {@code batchSize} notifications older than {@code cutoff}
+	 * that no longer have any recipient rows.
+	 */
+	@Transactional
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			delete from notifications
+			where id in (
+			    select n.id
+			    from notifications n
+			    where n.created_at < :cutoff
+			      and not exists (
+			          select 1 from notification_recipients r where r.notification_id = n.id)
+			    limit :batchSize
+			)
+			""")
+	int deleteOrphansBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
 }
@@ -0,0 +1,40 @@
+package com.ts.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.ts.models.OrphanedBlob;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OrphanedBlobRepository extends JpaRepository<OrphanedBlob, String> {
+
+	// concurrent deletes of the same content just move the grace period on
+	@Modifying
+	@Query(nativeQuery = true, value = """
+			insert into orphaned_blobs (content_hash, released_at)
+			values (:hash, :at)
+			on conflict (content_hash) do update set released_at = excluded.released_at
+			""")
+	int release(@Param("hash") String hash, @Param("at") LocalDateTime at);
+
+	// -2 = SKIP LOCKED, so sweeps on several nodes never work on the same blob
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+	@Query("""
+			select o from OrphanedBlob o
+			where o.releasedAt <= :cutoff
+			order by o.releasedAt
+			""")
+	List<OrphanedBlob> claimExpired(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+}
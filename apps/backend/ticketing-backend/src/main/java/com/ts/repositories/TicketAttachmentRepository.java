@@ -1,9 +1,16 @@
 package com.ts.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ts.enums.RenditionStatus;
 import com.ts.models.Ticket;
 import com.ts.models.TicketAttachment;
 
@@ -13,4 +20,21 @@ public interface TicketAttachmentRepository extends JpaRepository<TicketAttachme
 
 	List<TicketAttachment> findAllByTicket(Ticket ticket);
 
+	boolean existsByContentHash(String contentHash);
+
+	boolean existsByContentHashAndRenditionStatus(String contentHash, RenditionStatus renditionStatus);
+
+	// renditions belong to the blob, so every attachment sharing it moves together
+	@Modifying
+	@Transactional
+	@Query("""
+			update TicketAttachment a
+			set a.renditionStatus = :status
+			where a.contentHash = :hash
+			""")
+	int updateRenditionStatus(@Param("hash") String hash, @Param("status") RenditionStatus status);
+
+	@EntityGraph(attributePaths = {"ticket", "uploadedBy"})
+	List<TicketAttachment> findAllByTicketIn(Collection<Ticket> tickets);
+
 }
@@ -1,10 +1,15 @@
 package com.ts.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.ts.dtos.CommentIndexRow;
 import com.ts.models.Ticket;
 import com.ts.models.TicketComment;
 
@@ -14,4 +19,21 @@ public interface TicketCommentRepository extends JpaRepository<TicketComment, Lo
 
 	List<TicketComment> findAllByTicket(Ticket ticket);
 
+	@EntityGraph(attributePaths = {"ticket", "commentedBy"})
+	List<TicketComment> findAllByTicketIn(Collection<Ticket> tickets);
+
+	@Query("""
+			select new com.ts.dtos.CommentIndexRow(c.ticket.id, c.comment, c.isInternal)
+			from TicketComment c
+			where c.ticket.id between :fromId and :toId
+			""")
+	List<CommentIndexRow> findIndexRows(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+	@Query("""
+			select new com.ts.dtos.CommentIndexRow(c.ticket.id, c.comment, c.isInternal)
+			from TicketComment c
+			where c.id in :ids
+			""")
+	List<CommentIndexRow> findIndexRowsByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -1,22 +1,74 @@
 package com.ts.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.ts.dtos.TicketCountRow;
+import com.ts.dtos.TicketIndexRow;
 import com.ts.dtos.TicketResponse;
 import com.ts.enums.TicketCategory;
 import com.ts.enums.TicketStatus;
 import com.ts.models.Employee;
 import com.ts.models.Ticket;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+	// status transitions read the previous status under this lock so the stats delta is exact
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select t from Ticket t where t.id = :id")
+	Optional<Ticket> findForUpdate(@Param("id") Long id);
+
+	String PAGE_SELECT = """
+			select t from Ticket t
+			left join fetch t.createdBy
+			left join fetch t.assignedTo
+			where (:viewerId is null
+			       or t.createdBy.id = :viewerId
+			       or (t.assignedTo.id = :viewerId and t.category = :viewerCategory))
+			  and (:status is null or t.status = :status)
+			  and (:category is null or t.category = :category)
+			  and (:priority is null or t.priority = :priority)
+			  and (:assigneeId is null or t.assignedTo.id = :assigneeId)
+			""";
+
+	String PAGE_ORDER = " order by t.updatedAt desc, t.id desc";
+
+	String LIST_SELECT = """
+			select new com.ts.dtos.TicketResponse(
+			    t.id, t.ticketNumber, t.title, t.description,
+			    t.category, t.status, t.priority,
+			    c.id, c.name, c.email, c.role,
+			    a.id, a.name, a.email, a.role,
+			    t.createdAt, t.updatedAt, t.resolvedAt)
+			from Ticket t
+			left join t.createdBy c
+			left join t.assignedTo a
+			""";
+
 	List<Ticket> findByAssignedTo(Employee user);
 
+	@EntityGraph(attributePaths = {"createdBy", "assignedTo"})
 	List<Ticket> findByAssignedToOrCreatedBy(Employee user, Employee user2);
 
+	@Query("select t from Ticket t left join fetch t.createdBy left join fetch t.assignedTo")
+	List<Ticket> findAllWithParticipants();
+
 	Optional<Ticket> findByStatus(TicketStatus open);
 
 	Optional<Ticket> findByStatusAndCategory(TicketStatus status, TicketCategory category);
@@ -25,5 +77,103 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
 	List<Ticket> findByStatusAndAssignedToOrCreatedBy(TicketStatus resolved, Employee user, Employee user2);
 
+	/* ================= LIST PROJECTIONS ================= */
+
+	@Query(LIST_SELECT + """
+			where t.status = :status
+			  and (:category is null or t.category = :category)
+			order by t.updatedAt desc
+			""")
+	List<TicketResponse> findRowsByStatus(
+			@Param("status") TicketStatus status,
+			@Param("category") TicketCategory category);
+
+	@Query(LIST_SELECT + """
+			where t.status not in :statuses
+			order by t.updatedAt desc
+			""")
+	List<TicketResponse> findRowsByStatusNotIn(@Param("statuses") List<TicketStatus> statuses);
+
+	@Query(LIST_SELECT + """
+			where t.status = :status
+			  and (c.id = :userId or a.id = :userId)
+			order by t.updatedAt desc
+			""")
+	List<TicketResponse> findRowsByStatusForParticipant(
+			@Param("status") TicketStatus status,
+			@Param("userId") Long userId);
+
+	@Query(LIST_SELECT + "where t.id in :ids")
+	List<TicketResponse> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+	/* ================= STATS ================= */
+
+	@Query("""
+			select new com.ts.dtos.TicketCountRow(t.status, t.category, t.priority, count(t))
+			from Ticket t
+			group by t.status, t.category, t.priority
+			""")
+	List<TicketCountRow> countByStatusCategoryPriority();
+
+	/* ================= SEARCH INDEX ================= */
+
+	@Query("select coalesce(max(t.id), 0) from Ticket t")
+	Long findMaxId();
+
+	@Query("""
+			select new com.ts.dtos.TicketIndexRow(t.id, t.title, t.description, t.category, t.createdBy.id)
+			from Ticket t
+			where t.id between :fromId and :toId
+			""")
+	List<TicketIndexRow> findIndexRows(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+	@Query("""
+			select new com.ts.dtos.TicketIndexRow(t.id, t.title, t.description, t.category, t.createdBy.id)
+			from Ticket t
+			where t.id in :ids
+			""")
+	List<TicketIndexRow> findIndexRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+	/* ================= KEYSET PAGINATION ================= */
+
+	@Query(PAGE_SELECT + PAGE_ORDER)
+	List<Ticket> findFirstPage(
+			@Param("viewerId") Long viewerId,
+			@Param("viewerCategory") TicketCategory viewerCategory,
+			@Param("status") TicketStatus status,
+			@Param("category") TicketCategory category,
+			@Param("priority") Integer priority,
+			@Param("assigneeId") Long assigneeId,
+			Limit limit);
+
+	@Query(PAGE_SELECT + """
+			  and (t.updatedAt < :cursorUpdatedAt
+			       or (t.updatedAt = :cursorUpdatedAt and t.id < :cursorId))
+			""" + PAGE_ORDER)
+	List<Ticket> findPageAfter(
+			@Param("viewerId") Long viewerId,
+			@Param("viewerCategory") TicketCategory viewerCategory,
+			@Param("status") TicketStatus status,
+			@Param("category") TicketCategory category,
+			@Param("priority") Integer priority,
+			@Param("assigneeId") Long assigneeId,
+			@Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+			@Param("cursorId") Long cursorId,
+			Limit limit);
+
+	/* ================= EXPORT ================= */
+
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query(PAGE_SELECT + " order by t.id")
+	Stream<Ticket> streamForExport(
+			@Param("viewerId") Long viewerId,
+			@Param("viewerCategory") TicketCategory viewerCategory,
+			@Param("status") TicketStatus status,
+			@Param("category") TicketCategory category,
+			@Param("priority") Integer priority,
+			@Param("assigneeId") Long assigneeId);
 
 }
@@ -0,0 +1,150 @@
+package com.ts.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ts.enums.AttachmentRendition;
+import com.ts.models.OrphanedBlob;
+import com.ts.repositories.OrphanedBlobRepository;
+import com.ts.repositories.TicketAttachmentRepository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Deletes attachment blobs that nothing references any more.
+ *
+ * Removing an attachment only records its blob in orphaned_blobs. Deciding
+ * right away would race with an upload that has just matched the same bytes
+ * but not yet committed its row, so the sweep waits out a grace period and
+ * then deletes a blob only when no attachment refers to it and no upload has
+ * stored or matched it within that period. Each batch runs in its own
+ * transaction with the candidates locked.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "files.gc")
+public class AttachmentBlobCollector {
+
+	@Getter @Setter
+	private boolean enabled = true;
+
+	@Getter @Setter
+	private int graceMinutes = 60;
+
+	@Getter @Setter
+	private int batchSize = 200;
+
+	@Getter @Setter
+	private int maxBatchesPerRun = 50;
+
+	private final OrphanedBlobRepository orphanRepository;
+	private final TicketAttachmentRepository attachmentRepository;
+	private final AttachmentStorage storage;
+	private final AttachmentThumbnailService thumbnailService;
+	private final PlatformTransactionManager transactionManager;
+
+	private final AtomicLong totalDeleted = new AtomicLong();
+	private final AtomicLong totalKept = new AtomicLong();
+	private volatile Map<String, Object> lastRun = Map.of();
+
+	/** Marks the blob as a candidate; call in the transaction that drops the reference. */
+	public void release(String hash) {
+		orphanRepository.release(hash, LocalDateTime.now());
+	}
+
+	@Scheduled(fixedDelayString = "${files.gc.interval-ms:600000}")
+	public void scheduledRun() {
+		if (enabled) {
+			runOnce();
+		}
+	}
+
+	public synchronized Map<String, Object> runOnce() {
+		long started = System.currentTimeMillis();
+		LocalDateTime now = LocalDateTime.now();
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+		long[] counts = new long[2]; // deleted, kept
+		for (int i = 0; i < maxBatchesPerRun; i++) {
+			Integer claimed = tx.execute(status -> sweepBatch(counts));
+			if (claimed == null || claimed < batchSize) {
+				break;
+			}
+		}
+
+		totalDeleted.addAndGet(counts[0]);
+		totalKept.addAndGet(counts[1]);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("ranAt", now);
+		report.put("blobsDeleted", counts[0]);
+		report.put("blobsKept", counts[1]);
+		report.put("durationMs", System.currentTimeMillis() - started);
+		lastRun = report;
+		if (counts[0] > 0) {
+			System.out.println("Blob collector deleted " + counts[0] + " unreferenced blobs");
+		}
+		return report;
+	}
+
+	private int sweepBatch(long[] counts) {
+		LocalDateTime now = LocalDateTime.now();
+		long graceMillis = graceMinutes * 60_000L;
+		List<OrphanedBlob> batch = orphanRepository.claimExpired(now.minusMinutes(graceMinutes), Limit.of(batchSize));
+
+		for (OrphanedBlob orphan : batch) {
+			String hash = orphan.getContentHash();
+
+			if (attachmentRepository.existsByContentHash(hash)) {
+				orphanRepository.delete(orphan);
+				counts[1]++;
+				continue;
+			}
+
+			try {
+				if (System.currentTimeMillis() - storage.lastStored(hash) < graceMillis) {
+					// an upload matched it recently; its row may not be committed yet
+					orphan.setReleasedAt(now);
+					continue;
+				}
+
+				storage.delete(hash);
+				for (AttachmentRendition rendition : AttachmentRendition.values()) {
+					Files.deleteIfExists(thumbnailService.renditionPath(hash, rendition));
+				}
+				orphanRepository.delete(orphan);
+				counts[0]++;
+			} catch (IOException e) {
+				// try again next run
+				orphan.setReleasedAt(now);
+				System.out.println("Failed to delete blob " + hash + ": " + e.getMessage());
+			}
+		}
+		return batch.size();
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("graceMinutes", graceMinutes);
+		stats.put("pending", orphanRepository.count());
+		stats.put("totalBlobsDeleted", totalDeleted.get());
+		stats.put("totalBlobsKept", totalKept.get());
+		stats.put("lastRun", lastRun);
+		return stats;
+	}
+}
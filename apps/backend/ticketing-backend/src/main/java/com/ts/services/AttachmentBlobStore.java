@@ -0,0 +1,232 @@
+package com.ts.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One file per blob.
+ *
+ * Uploads are streamed once into a temp file while SHA-256 is computed over
+ * the same bytes, then atomically renamed to {@code blobs/ab/cd/<hash>}. A blob
+ * that already exists is reused, so the same file attached to many tickets is
+ * stored once. Reusing a blob bumps its modification time, which garbage
+ * collection reads as {@link #lastStored}.
+ */
+@Service
+@ConfigurationProperties(prefix = "files")
+@ConditionalOnProperty(name = "files.storage", havingValue = "blob", matchIfMissing = true)
+public class AttachmentBlobStore implements AttachmentStorage {
+
+	private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+	@Getter @Setter
+	private String path; // uploads/images
+
+	private final AtomicLong stored = new AtomicLong();
+	private final AtomicLong deduplicated = new AtomicLong();
+	private final AtomicLong bytesSaved = new AtomicLong();
+
+	@Override
+	public StoredBlob store(InputStream in) throws IOException {
+		Path tmpDir = blobRoot().resolve("tmp");
+		Files.createDirectories(tmpDir);
+		Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+
+		try {
+			MessageDigest digest = sha256();
+			long size = 0;
+
+			try (ReadableByteChannel src = Channels.newChannel(new DigestInputStream(in, digest));
+					FileChannel dst = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+				long n;
+				while ((n = dst.transferFrom(src, size, TRANSFER_CHUNK)) > 0) {
+					size += n;
+				}
+				dst.force(false);
+			}
+
+			String hash = HexFormat.of().formatHex(digest.digest());
+			Path target = resolve(hash);
+
+			if (touch(target)) {
+				deduplicated.incrementAndGet();
+				bytesSaved.addAndGet(size);
+				return new StoredBlob(hash, size, false);
+			}
+
+			Files.createDirectories(target.getParent());
+			try {
+				Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+			} catch (FileAlreadyExistsException e) {
+				// another upload of the same content won the race
+				deduplicated.incrementAndGet();
+				bytesSaved.addAndGet(size);
+				return new StoredBlob(hash, size, false);
+			}
+			stored.incrementAndGet();
+			return new StoredBlob(hash, size, true);
+
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	public Path resolve(String hash) {
+		if (hash == null || !hash.matches("[0-9a-f]{64}")) {
+			throw new IllegalArgumentException("Invalid content hash");
+		}
+		return blobRoot().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+	}
+
+	@Override
+	public StoredBlob adopt(Path file, String hash) throws IOException {
+		long size = Files.size(file);
+		Path target = resolve(hash);
+
+		if (touch(target)) {
+			Files.delete(file);
+			deduplicated.incrementAndGet();
+			bytesSaved.addAndGet(size);
+			return new StoredBlob(hash, size, false);
+		}
+
+		Files.createDirectories(target.getParent());
+		Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+		stored.incrementAndGet();
+		return new StoredBlob(hash, size, true);
+	}
+
+	@Override
+	public boolean exists(String hash) {
+		return Files.isRegularFile(resolve(hash));
+	}
+
+	@Override
+	public long size(String hash) throws IOException {
+		return Files.size(resolve(hash));
+	}
+
+	@Override
+	public Path localFile(String hash) {
+		return resolve(hash);
+	}
+
+	@Override
+	public InputStream openStream(String hash) throws IOException {
+		return Files.newInputStream(resolve(hash));
+	}
+
+	@Override
+	public void transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException {
+		try (FileChannel channel = FileChannel.open(resolve(hash), StandardOpenOption.READ)) {
+			while (count > 0) {
+				long n = channel.transferTo(position, count, target);
+				if (n <= 0) {
+					break;
+				}
+				position += n;
+				count -= n;
+			}
+		}
+	}
+
+	@Override
+	public boolean delete(String hash) throws IOException {
+		return Files.deleteIfExists(resolve(hash));
+	}
+
+	@Override
+	public long lastStored(String hash) throws IOException {
+		try {
+			return Files.getLastModifiedTime(resolve(hash)).toMillis();
+		} catch (NoSuchFileException e) {
+			return 0;
+		}
+	}
+
+	/* Marks an existing blob as just reused; false when there is none. */
+	boolean touch(String hash) throws IOException {
+		return touch(resolve(hash));
+	}
+
+	private boolean touch(Path blob) throws IOException {
+		try {
+			Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+			return true;
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public Path derivedFile(String hash, String suffix) {
+		return resolve(hash).resolveSibling(hash + "." + suffix);
+	}
+
+	@Override
+	public boolean verify(String hash) throws IOException {
+		Path blob = resolve(hash);
+		if (!Files.exists(blob)) {
+			return false;
+		}
+
+		MessageDigest digest = sha256();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+		try (FileChannel channel = FileChannel.open(blob, StandardOpenOption.READ)) {
+			while (channel.read(buffer) > 0) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		}
+		return hash.equals(HexFormat.of().formatHex(digest.digest()));
+	}
+
+	@Override
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("stored", stored.get());
+		stats.put("deduplicated", deduplicated.get());
+		stats.put("bytesSaved", bytesSaved.get());
+		return stats;
+	}
+
+	private Path blobRoot() {
+		return Paths.get(path, "blobs");
+	}
+
+	private MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
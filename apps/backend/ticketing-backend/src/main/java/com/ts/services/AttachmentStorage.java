@@ -0,0 +1,64 @@
+package com.ts.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Content-addressed storage for attachment bytes, keyed by SHA-256 hex.
+ * Selected with {@code files.storage}: {@code blob} (one file per blob) or
+ * {@code segment} (small blobs packed into append-only segment files).
+ */
+public interface AttachmentStorage {
+
+	@Data
+	@AllArgsConstructor
+	class StoredBlob {
+		private String hash;
+		private long size;
+		private boolean created;
+	}
+
+	/** Stores the stream, or reuses an identical blob that is already stored. */
+	StoredBlob store(InputStream in) throws IOException;
+
+	/**
+	 * Takes over a complete file whose SHA-256 is already known, ideally by
+	 * renaming it. The file is consumed either way.
+	 */
+	StoredBlob adopt(Path file, String hash) throws IOException;
+
+	boolean exists(String hash);
+
+	long size(String hash) throws IOException;
+
+	/** The plain file holding the blob, or null when it is packed (no sendfile then). */
+	Path localFile(String hash);
+
+	InputStream openStream(String hash) throws IOException;
+
+	void transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException;
+
+	boolean delete(String hash) throws IOException;
+
+	/**
+	 * When an upload last stored or matched the blob, in epoch millis (0 when
+	 * unknown), so garbage collection can leave alone a blob that an upload
+	 * is about to reference.
+	 */
+	long lastStored(String hash) throws IOException;
+
+	/** Re-hashes a stored blob and checks it still matches its name. */
+	boolean verify(String hash) throws IOException;
+
+	/** Where to keep files derived from a blob, such as thumbnails. */
+	Path derivedFile(String hash, String suffix);
+
+	Map<String, Object> stats();
+
+}
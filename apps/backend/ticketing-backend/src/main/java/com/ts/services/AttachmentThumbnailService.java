@@ -0,0 +1,267 @@
+package com.ts.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ts.enums.AttachmentRendition;
+import com.ts.enums.RenditionStatus;
+import com.ts.repositories.TicketAttachmentRepository;
+import com.ts.utils.ImageFormats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Renders JPEG thumbnails and previews for image attachments in the
+ * background. Renditions sit next to the blob ({@code <hash>.thumbnail.jpg},
+ * {@code <hash>.preview.jpg}), so an image shared by many tickets is rendered
+ * once. The outcome is recorded on the attachments; work that was dropped or
+ * lost is queued again by the first request for it. Rendering never runs on
+ * a request thread.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "files.thumbnails")
+public class AttachmentThumbnailService {
+
+	@Getter @Setter
+	private int threads = 2;
+
+	@Getter @Setter
+	private int queueCapacity = 200;
+
+	@Getter @Setter
+	private int thumbnailSize = 200;
+
+	@Getter @Setter
+	private int previewSize = 1024;
+
+	// refuse to decode anything larger (decompression bombs)
+	@Getter @Setter
+	private long maxPixels = 50_000_000;
+
+	private final AttachmentStorage storage;
+	private final TicketAttachmentRepository attachmentRepository;
+
+	private ThreadPoolExecutor executor;
+
+	// hashes queued or rendering right now
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong generated = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	@PostConstruct
+	void start() {
+		// decode from memory rather than spooling packed blobs to a temp file
+		ImageIO.setUseCache(false);
+		executor = new ThreadPoolExecutor(
+				threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				new ThreadPoolExecutor.AbortPolicy()
+		);
+	}
+
+	@PreDestroy
+	void stop() {
+		executor.shutdownNow();
+	}
+
+	public Path renditionPath(String hash, AttachmentRendition rendition) {
+		return storage.derivedFile(hash, rendition.name().toLowerCase(Locale.ROOT) + ".jpg");
+	}
+
+	/**
+	 * Rendition state for a new attachment of the blob: READY or FAILED when
+	 * an earlier attachment of the same bytes settled it, otherwise PENDING
+	 * and rendering is left to {@link #renderAfterCommit}.
+	 *
+	 * @return null for files that are not images
+	 */
+	public RenditionStatus initialStatus(String hash, String fileName) {
+		if (!ImageFormats.canRender(fileName)) {
+			return null;
+		}
+		if (Files.exists(renditionPath(hash, AttachmentRendition.THUMBNAIL))) {
+			return RenditionStatus.READY;
+		}
+		// the same bytes would fail the same way
+		if (attachmentRepository.existsByContentHashAndRenditionStatus(hash, RenditionStatus.FAILED)) {
+			return RenditionStatus.FAILED;
+		}
+		return RenditionStatus.PENDING;
+	}
+
+	/**
+	 * Queues rendering once the surrounding transaction has committed, so the
+	 * state is recorded on rows that exist; right away when there is none.
+	 */
+	public void renderAfterCommit(String hash) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			submit(hash);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				submit(hash);
+			}
+		});
+	}
+
+	/**
+	 * Whether the renditions exist. If not, the render is queued again in
+	 * case the background attempt was dropped or lost to a restart; the
+	 * caller answers "not yet" instead of rendering inline.
+	 */
+	public boolean requestRendered(String hash) {
+		if (Files.exists(renditionPath(hash, AttachmentRendition.THUMBNAIL))) {
+			return true;
+		}
+		submit(hash);
+		return false;
+	}
+
+	// never blocks: when the queue is full the work is dropped, counted, and queued by a later request
+	private void submit(String hash) {
+		if (inFlight.add(hash)) {
+			try {
+				executor.execute(() -> {
+					try {
+						render(hash);
+					} finally {
+						inFlight.remove(hash);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				inFlight.remove(hash);
+				dropped.incrementAndGet();
+			}
+		}
+	}
+
+	private void render(String hash) {
+		RenditionStatus status = generate(hash) ? RenditionStatus.READY : RenditionStatus.FAILED;
+		try {
+			attachmentRepository.updateRenditionStatus(hash, status);
+		} catch (DataAccessException e) {
+			System.out.println("Failed to record rendition state for " + hash + ": " + e.getMessage());
+		}
+	}
+
+	private boolean generate(String hash) {
+		Path file = storage.localFile(hash);
+
+		try (ImageInputStream in = file != null
+				? ImageIO.createImageInputStream(file.toFile())
+				: ImageIO.createImageInputStream(storage.openStream(hash))) {
+			Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+			if (readers == null || !readers.hasNext()) {
+				failed.incrementAndGet();
+				return false;
+			}
+
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if ((long) width * height > maxPixels) {
+					System.out.println("Skipping thumbnail for " + hash + ": " + width + "x" + height);
+					failed.incrementAndGet();
+					return false;
+				}
+
+				// decode once, subsampled to about twice the preview size, and derive both renditions
+				int step = Math.max(1, Math.max(width, height) / (previewSize * 2));
+				ImageReadParam param = reader.getDefaultReadParam();
+				param.setSourceSubsampling(step, step, 0, 0);
+				BufferedImage decoded = reader.read(0, param);
+
+				BufferedImage preview = scale(decoded, previewSize);
+				write(preview, renditionPath(hash, AttachmentRendition.PREVIEW));
+
+				// the thumbnail goes last: its presence marks the work as done
+				write(scale(preview, thumbnailSize), renditionPath(hash, AttachmentRendition.THUMBNAIL));
+				generated.incrementAndGet();
+				return true;
+			} finally {
+				reader.dispose();
+			}
+		} catch (IOException | RuntimeException e) {
+			failed.incrementAndGet();
+			System.out.println("Thumbnail generation failed for " + hash + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	private BufferedImage scale(BufferedImage src, int maxSide) {
+		double ratio = Math.min(1.0, (double) maxSide / Math.max(src.getWidth(), src.getHeight()));
+		int w = Math.max(1, (int) Math.round(src.getWidth() * ratio));
+		int h = Math.max(1, (int) Math.round(src.getHeight() * ratio));
+
+		// JPEG has no alpha, so flatten onto white
+		BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = out.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, w, h);
+			g.drawImage(src, 0, 0, w, h, null);
+		} finally {
+			g.dispose();
+		}
+		return out;
+	}
+
+	private void write(BufferedImage image, Path target) throws IOException {
+		Files.createDirectories(target.getParent());
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		if (!ImageIO.write(image, "jpg", tmp.toFile())) {
+			throw new IOException("No JPEG writer available");
+		}
+		Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("generated", generated.get());
+		stats.put("failed", failed.get());
+		stats.put("dropped", dropped.get());
+		stats.put("queued", executor.getQueue().size());
+		return stats;
+	}
+}
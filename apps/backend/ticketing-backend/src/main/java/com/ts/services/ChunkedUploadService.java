@@ -0,0 +1,536 @@
+package com.ts.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ts.configs.ResourceBulkheads;
+import com.ts.dtos.ChunkedUploadRequest;
+import com.ts.dtos.ChunkedUploadStatus;
+import com.ts.dtos.TicketAttachmentResponse;
+import com.ts.exceptions.BadRequestException;
+import com.ts.exceptions.ResourceNotFoundException;
+import com.ts.models.ChunkedUpload;
+import com.ts.models.Employee;
+import com.ts.models.Ticket;
+import com.ts.repositories.ChunkedUploadRepository;
+import com.ts.repositories.TicketRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resumable uploads for attachments too large for a single multipart POST.
+ *
+ * A session is a chunked_uploads row plus a sparse file under
+ * {@code files.path/chunked}. Each PUT streams its chunk straight to its
+ * offset with positional writes, optionally checked against the client's
+ * per-chunk SHA-256, then records the received byte range under a row lock.
+ * With {@code files.path} on a shared volume any node can take any chunk,
+ * and sessions survive restarts. The finished file is handed to
+ * {@link AttachmentStorage#adopt} without another copy.
+ *
+ * While chunks arrive in order on one node, that node carries the whole-file
+ * SHA-256 along with them; the rest is caught up from the file on complete.
+ * Sessions expire after {@code files.chunked.session-ttl-minutes} of
+ * inactivity.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "files.chunked")
+public class ChunkedUploadService {
+
+	private static final int BUFFER_BYTES = 256 * 1024;
+	private static final int EXPIRY_BATCH = 100;
+
+	@Getter @Setter
+	private long chunkSize = 8L * 1024 * 1024;
+
+	@Getter @Setter
+	private long maxSize = 4L * 1024 * 1024 * 1024;
+
+	@Getter @Setter
+	private long sessionTtlMinutes = 60;
+
+	private final TicketRepository ticketRepository;
+	private final ChunkedUploadRepository uploadRepository;
+	private final TicketAttachmentService attachmentService;
+	private final AttachmentStorage storage;
+	private final ResourceBulkheads bulkheads;
+	private final PlatformTransactionManager transactionManager;
+
+	// upload id -> digest of the prefix this node has streamed in order
+	private final Map<String, RunningDigest> digests = new ConcurrentHashMap<>();
+
+	private Path root;
+	private TransactionTemplate tx;
+
+	/*
+	 * SHA-256 over [0, upTo) of an upload. Only valid while the row's
+	 * overwrites counter still equals the value recorded here.
+	 */
+	private static class RunningDigest {
+		private MessageDigest digest;
+		private long upTo;
+		private long overwrites;
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		RunningDigest(MessageDigest digest) {
+			this.digest = digest;
+		}
+	}
+
+	@PostConstruct
+	void init() throws IOException {
+		root = Paths.get(attachmentService.getPath(), "chunked");
+		Files.createDirectories(root);
+		tx = new TransactionTemplate(transactionManager);
+	}
+
+	/* ================= PROTOCOL ================= */
+
+	public ChunkedUploadStatus initiate(Long ticketId, ChunkedUploadRequest req, Employee user) throws IOException {
+
+		Ticket ticket = ticketRepository.findById(ticketId)
+				.orElseThrow(() -> new ResourceNotFoundException("Ticket with id: " + ticketId + " is not found"));
+		if (!TicketService.canView(ticket.getCreatedBy().getId(), ticket.getCategory(), user)) {
+			throw new RuntimeException("Access denied");
+		}
+
+		if (req.getFileName() == null || req.getFileName().isBlank()) {
+			throw new BadRequestException("fileName is required");
+		}
+		if (req.getSize() == null || req.getSize() < 0 || req.getSize() > maxSize) {
+			throw new BadRequestException("size must be between 0 and " + maxSize + " bytes");
+		}
+		String expected = req.getSha256() == null ? null : req.getSha256().toLowerCase(Locale.ROOT);
+		if (expected != null && !expected.matches("[0-9a-f]{64}")) {
+			throw new BadRequestException("sha256 must be 64 hex characters");
+		}
+
+		ChunkedUpload upload = new ChunkedUpload();
+		upload.setId(UUID.randomUUID().toString());
+		upload.setTicketId(ticketId);
+		upload.setEmployeeId(user.getId());
+		upload.setFileName(req.getFileName().trim());
+		upload.setSize(req.getSize());
+		upload.setExpectedSha256(expected);
+		upload.setReceivedRanges("");
+		upload.setLastTouched(LocalDateTime.now());
+
+		// the row goes first, so a file without one is always a leftover
+		uploadRepository.save(upload);
+		FileChannel.open(partFile(upload.getId()),
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SPARSE).close();
+		return status(upload);
+	}
+
+	public ChunkedUploadStatus status(Long ticketId, String uploadId, Employee user) {
+		return status(load(ticketId, uploadId, user));
+	}
+
+	/**
+	 * Writes one chunk at {@code offset}. The range only counts as received
+	 * once the optional chunk checksum has matched, so a failed chunk is simply
+	 * sent again.
+	 */
+	public ChunkedUploadStatus writeChunk(Long ticketId, String uploadId, long offset, String chunkSha256,
+			InputStream body, Employee user) throws IOException {
+
+		ChunkedUpload upload = load(ticketId, uploadId, user);
+		if (upload.isCompleting()) {
+			throw new BadRequestException("Upload " + uploadId + " is being completed");
+		}
+		if (offset < 0 || offset > upload.getSize()) {
+			throw new BadRequestException("offset must be between 0 and " + upload.getSize());
+		}
+
+		// in-order chunk: extend a copy of the running digest as the bytes stream past
+		RunningDigest running = digests.computeIfAbsent(uploadId, id -> new RunningDigest(sha256()));
+		MessageDigest fileDigest = null;
+		synchronized (running) {
+			if (running.upTo == 0) {
+				running.overwrites = upload.getOverwrites();
+			}
+			if (running.upTo == offset && running.overwrites == upload.getOverwrites()) {
+				fileDigest = cloneDigest(running.digest);
+			}
+			running.lastUsed = System.currentTimeMillis();
+		}
+
+		MessageDigest chunkDigest = chunkSha256 != null ? sha256() : null;
+		InputStream in = body;
+		if (chunkDigest != null) {
+			in = new DigestInputStream(in, chunkDigest);
+		}
+		if (fileDigest != null) {
+			in = new DigestInputStream(in, fileDigest);
+		}
+
+		long max = upload.getSize() - offset;
+		long written = write(partFile(uploadId), offset, max, in);
+		if (written == max && in.read() != -1) {
+			throw new BadRequestException("Chunk runs past the declared file size");
+		}
+
+		boolean valid = chunkDigest == null
+				|| HexFormat.of().formatHex(chunkDigest.digest()).equalsIgnoreCase(chunkSha256);
+		long end = offset + written;
+		MessageDigest extended = fileDigest;
+
+		ChunkedUploadStatus status = tx.execute(s -> {
+			ChunkedUpload locked = lock(uploadId);
+			TreeMap<Long, Long> ranges = parseRanges(locked.getReceivedRanges());
+			long prefixEnd = prefixEnd(ranges);
+			long overwritesBefore = locked.getOverwrites();
+
+			// bytes some node's running digest may cover have changed
+			if (offset < prefixEnd) {
+				locked.setOverwrites(overwritesBefore + 1);
+			}
+			if (valid) {
+				addRange(ranges, offset, end);
+			} else {
+				// the bad bytes may have landed on a range received earlier
+				removeRange(ranges, offset, end);
+			}
+			locked.setReceivedRanges(formatRanges(ranges));
+			locked.setLastTouched(LocalDateTime.now());
+
+			if (valid && extended != null && offset == prefixEnd) {
+				synchronized (running) {
+					if (running.upTo == offset && running.overwrites == overwritesBefore) {
+						running.digest = extended;
+						running.upTo = end;
+					}
+				}
+			}
+			return status(locked);
+		});
+
+		if (!valid) {
+			throw new BadRequestException("Chunk checksum mismatch at offset " + offset);
+		}
+		return status;
+	}
+
+	public TicketAttachmentResponse complete(Long ticketId, String uploadId, Employee user) throws IOException {
+
+		load(ticketId, uploadId, user);
+
+		// claim it: later chunks are refused and a second complete is turned away
+		ChunkedUpload upload = tx.execute(s -> {
+			ChunkedUpload locked = lock(uploadId);
+			if (locked.isCompleting()) {
+				throw new BadRequestException("Upload " + uploadId + " is already being completed");
+			}
+			long received = received(parseRanges(locked.getReceivedRanges()));
+			if (received != locked.getSize()) {
+				throw new BadRequestException("Upload is incomplete: " + received + " of "
+						+ locked.getSize() + " bytes received");
+			}
+			locked.setCompleting(true);
+			locked.setLastTouched(LocalDateTime.now());
+			return locked;
+		});
+
+		Path file = partFile(uploadId);
+		String hash;
+		AttachmentStorage.StoredBlob blob;
+		try {
+			hash = digest(upload, file);
+			if (upload.getExpectedSha256() != null && !upload.getExpectedSha256().equals(hash)) {
+				discard(uploadId);
+				throw new BadRequestException("File checksum mismatch: expected " + upload.getExpectedSha256()
+						+ " but received " + hash);
+			}
+			blob = bulkheads.disk().call(() -> storage.adopt(file, hash));
+		} catch (IOException | RuntimeException e) {
+			unclaim(uploadId);
+			throw e;
+		}
+
+		Ticket ticket = ticketRepository.findById(ticketId)
+				.orElseThrow(() -> new ResourceNotFoundException("Ticket with id: " + ticketId + " is not found"));
+		TicketAttachmentResponse response = TicketAttachmentResponse.toDto(
+				attachmentService.saveAttachment(ticket, upload.getFileName(), blob, user));
+
+		uploadRepository.deleteById(uploadId);
+		digests.remove(uploadId);
+		return response;
+	}
+
+	public void abort(Long ticketId, String uploadId, Employee user) {
+		if (load(ticketId, uploadId, user).isCompleting()) {
+			throw new BadRequestException("Upload " + uploadId + " is being completed");
+		}
+		discard(uploadId);
+	}
+
+	/* ================= EXPIRY ================= */
+
+	@Scheduled(fixedDelayString = "${files.chunked.cleanup-interval-ms:300000}")
+	public void expireIdleSessions() {
+		LocalDateTime cutoff = LocalDateTime.now().minusMinutes(sessionTtlMinutes);
+
+		List<String> expired;
+		do {
+			expired = tx.execute(s -> {
+				List<ChunkedUpload> idle = uploadRepository.claimIdle(cutoff, Limit.of(EXPIRY_BATCH));
+				uploadRepository.deleteAll(idle);
+				return idle.stream().map(ChunkedUpload::getId).toList();
+			});
+			for (String id : expired) {
+				deleteFile(id);
+				digests.remove(id);
+				System.out.println("Expired idle upload " + id);
+			}
+		} while (expired.size() == EXPIRY_BATCH);
+
+		// uploads finished or expired by another node
+		long digestCutoff = System.currentTimeMillis() - sessionTtlMinutes * 60_000;
+		digests.values().removeIf(d -> d.lastUsed < digestCutoff);
+
+		removeLeftoverFiles(digestCutoff);
+	}
+
+	/*
+	 * Files whose row is gone: a node stopped between deleting the row and
+	 * the file.
+	 */
+	private void removeLeftoverFiles(long cutoffMillis) {
+		try (Stream<Path> files = Files.list(root)) {
+			for (Path p : (Iterable<Path>) files::iterator) {
+				String name = p.getFileName().toString();
+				if (name.endsWith(".part") && Files.getLastModifiedTime(p).toMillis() < cutoffMillis
+						&& !uploadRepository.existsById(name.substring(0, name.length() - 5))) {
+					Files.deleteIfExists(p);
+				}
+			}
+		} catch (IOException e) {
+			System.out.println("Failed to clean up " + root + ": " + e.getMessage());
+		}
+	}
+
+	/* ================= HELPERS ================= */
+
+	private ChunkedUpload load(Long ticketId, String uploadId, Employee user) {
+		ChunkedUpload upload = uploadRepository.findById(uploadId)
+				.filter(u -> u.getTicketId().equals(ticketId))
+				.orElseThrow(() -> new ResourceNotFoundException("Upload " + uploadId + " is not found"));
+		if (!upload.getEmployeeId().equals(user.getId())) {
+			throw new RuntimeException("Access denied");
+		}
+		return upload;
+	}
+
+	private ChunkedUpload lock(String uploadId) {
+		return uploadRepository.findForUpdate(uploadId)
+				.orElseThrow(() -> new ResourceNotFoundException("Upload " + uploadId + " is not found"));
+	}
+
+	private void unclaim(String uploadId) {
+		tx.executeWithoutResult(s -> uploadRepository.findForUpdate(uploadId).ifPresent(u -> u.setCompleting(false)));
+	}
+
+	private void discard(String uploadId) {
+		uploadRepository.deleteById(uploadId);
+		digests.remove(uploadId);
+		deleteFile(uploadId);
+	}
+
+	private void deleteFile(String uploadId) {
+		try {
+			Files.deleteIfExists(partFile(uploadId));
+		} catch (IOException e) {
+			System.out.println("Failed to remove upload " + uploadId + ": " + e.getMessage());
+		}
+	}
+
+	private Path partFile(String uploadId) {
+		return root.resolve(uploadId + ".part");
+	}
+
+	/*
+	 * Copies up to {@code max} bytes to {@code offset} onwards. Positional
+	 * writes extend the file as needed, unlike transferFrom, which transfers
+	 * nothing at a position past the current end.
+	 */
+	private long write(Path file, long offset, long max, InputStream in) throws IOException {
+		ReadableByteChannel src = Channels.newChannel(in);
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+		long written = 0;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			while (written < max) {
+				buffer.clear().limit((int) Math.min(BUFFER_BYTES, max - written));
+				if (src.read(buffer) < 0) {
+					break;
+				}
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					written += channel.write(buffer, offset + written);
+				}
+			}
+		}
+		return written;
+	}
+
+	// whole-file SHA-256, reusing this node's running digest when it is still valid
+	private String digest(ChunkedUpload upload, Path file) throws IOException {
+		MessageDigest digest = null;
+		long position = 0;
+
+		RunningDigest running = digests.get(upload.getId());
+		if (running != null) {
+			synchronized (running) {
+				if (running.overwrites == upload.getOverwrites()) {
+					digest = cloneDigest(running.digest);
+					position = running.upTo;
+				}
+			}
+		}
+		if (digest == null) {
+			digest = sha256();
+			position = 0;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (position < upload.getSize()) {
+				buffer.clear();
+				int read = channel.read(buffer, position);
+				if (read <= 0) {
+					break;
+				}
+				buffer.flip();
+				digest.update(buffer);
+				position += read;
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private TreeMap<Long, Long> parseRanges(String text) {
+		TreeMap<Long, Long> ranges = new TreeMap<>();
+		if (text != null && !text.isEmpty()) {
+			for (String range : text.split(",")) {
+				int dash = range.indexOf('-');
+				ranges.put(Long.parseLong(range.substring(0, dash)), Long.parseLong(range.substring(dash + 1)));
+			}
+		}
+		return ranges;
+	}
+
+	private String formatRanges(TreeMap<Long, Long> ranges) {
+		StringJoiner text = new StringJoiner(",");
+		ranges.forEach((start, end) -> text.add(start + "-" + end));
+		return text.toString();
+	}
+
+	// merges [start, end) into the map of disjoint, non-adjacent ranges
+	private void addRange(TreeMap<Long, Long> ranges, long start, long end) {
+		if (start >= end) {
+			return;
+		}
+		Map.Entry<Long, Long> before = ranges.floorEntry(start);
+		if (before != null && before.getValue() >= start) {
+			start = before.getKey();
+			end = Math.max(end, before.getValue());
+			ranges.remove(before.getKey());
+		}
+		Map.Entry<Long, Long> next = ranges.ceilingEntry(start);
+		while (next != null && next.getKey() <= end) {
+			end = Math.max(end, next.getValue());
+			ranges.remove(next.getKey());
+			next = ranges.ceilingEntry(start);
+		}
+		ranges.put(start, end);
+	}
+
+	private void removeRange(TreeMap<Long, Long> ranges, long start, long end) {
+		Map.Entry<Long, Long> before = ranges.lowerEntry(start);
+		if (before != null && before.getValue() > start) {
+			ranges.put(before.getKey(), start);
+			if (before.getValue() > end) {
+				ranges.put(end, before.getValue());
+			}
+		}
+		Map.Entry<Long, Long> next = ranges.ceilingEntry(start);
+		while (next != null && next.getKey() < end) {
+			ranges.remove(next.getKey());
+			if (next.getValue() > end) {
+				ranges.put(end, next.getValue());
+			}
+			next = ranges.ceilingEntry(end);
+		}
+	}
+
+	private long prefixEnd(TreeMap<Long, Long> ranges) {
+		Map.Entry<Long, Long> first = ranges.firstEntry();
+		return first != null && first.getKey() == 0 ? first.getValue() : 0;
+	}
+
+	private long received(TreeMap<Long, Long> ranges) {
+		long total = 0;
+		for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+			total += range.getValue() - range.getKey();
+		}
+		return total;
+	}
+
+	private ChunkedUploadStatus status(ChunkedUpload upload) {
+		TreeMap<Long, Long> received = parseRanges(upload.getReceivedRanges());
+		List<long[]> ranges = new ArrayList<>();
+		received.forEach((start, end) -> ranges.add(new long[] { start, end }));
+
+		return new ChunkedUploadStatus(upload.getId(), upload.getFileName(), upload.getSize(), chunkSize,
+				received(received), prefixEnd(received), ranges);
+	}
+
+	private MessageDigest cloneDigest(MessageDigest digest) {
+		try {
+			return (MessageDigest) digest.clone();
+		} catch (CloneNotSupportedException e) {
+			return null;
+		}
+	}
+
+	private MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package com.ts.services;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ts.enums.EmailStatus;
+import com.ts.models.EmailOutbox;
+import com.ts.repositories.EmailOutboxRepository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Drains the email outbox in batches over a single SMTP session. Failed
+ * messages are retried with exponential backoff and dead-lettered once
+ * {@code maxAttempts} is reached.
+ *
+ * A batch is claimed in a short transaction that marks it SENDING with a
+ * lease of {@code leaseSeconds}, so no row lock or connection is held while
+ * SMTP is slow. Results are recorded in a second transaction; if the node
+ * dies in between, the lease runs out and the batch is claimed again.
+ * Every claim counts as an attempt, so a message whose lease keeps running
+ * out is dead-lettered like one that keeps failing.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "mail.outbox")
+public class EmailOutboxDispatcher {
+
+	@Getter @Setter
+	private boolean enabled = true;
+
+	@Getter @Setter
+	private int batchSize = 50;
+
+	@Getter @Setter
+	private int maxAttempts = 5;
+
+	@Getter @Setter
+	private long baseBackoffSeconds = 30;
+
+	@Getter @Setter
+	private long maxBackoffSeconds = 3600;
+
+	@Getter @Setter
+	private long leaseSeconds = 300;
+
+	private final EmailOutboxRepository outboxRepository;
+	private final JavaMailSender mailSender;
+	private final EmailService emailService;
+	private final PlatformTransactionManager transactionManager;
+
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder deadLettered = new LongAdder();
+
+	@Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+	public void dispatch() {
+
+		if (!enabled) {
+			return;
+		}
+
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+		// whole seconds, so the lease compares equal after the database round-trip
+		LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(leaseSeconds).truncatedTo(ChronoUnit.SECONDS);
+		List<EmailOutbox> batch = tx.execute(status -> {
+			List<EmailOutbox> claimed = outboxRepository.claimDue(LocalDateTime.now(), Limit.of(batchSize));
+			List<EmailOutbox> sendable = new ArrayList<>();
+			for (EmailOutbox mail : claimed) {
+				// an expired lease on the last attempt: give up instead of retrying forever
+				if (mail.getAttempts() >= maxAttempts) {
+					mail.setStatus(EmailStatus.DEAD);
+					mail.setLastError("Lease expired after " + mail.getAttempts() + " attempts");
+					deadLettered.increment();
+					continue;
+				}
+				mail.setAttempts(mail.getAttempts() + 1);
+				mail.setStatus(EmailStatus.SENDING);
+				mail.setNextAttemptAt(leaseUntil);
+				sendable.add(mail);
+			}
+			outboxRepository.saveAll(claimed);
+			return sendable;
+		});
+		if (batch == null || batch.isEmpty()) {
+			return;
+		}
+
+		SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+		for (int i = 0; i < batch.size(); i++) {
+			messages[i] = toMessage(batch.get(i));
+		}
+
+		Map<Object, Exception> failures = Map.of();
+		Exception batchFailure = null;
+		try {
+			mailSender.send(messages);
+		} catch (MailSendException e) {
+			failures = e.getFailedMessages();
+			if (failures.isEmpty()) {
+				batchFailure = e;
+			}
+		} catch (MailException e) {
+			batchFailure = e;
+		}
+
+		Map<Long, Exception> errors = new HashMap<>();
+		for (int i = 0; i < batch.size(); i++) {
+			Exception error = batchFailure != null ? batchFailure : failures.get(messages[i]);
+			if (error != null) {
+				errors.put(batch.get(i).getId(), error);
+			}
+		}
+
+		tx.executeWithoutResult(status -> {
+			// rows whose lease ran out meanwhile belong to another dispatcher now
+			List<Long> ids = batch.stream().map(EmailOutbox::getId).collect(Collectors.toList());
+			List<EmailOutbox> leased = outboxRepository.findLeased(ids, leaseUntil);
+
+			LocalDateTime now = LocalDateTime.now();
+			for (EmailOutbox mail : leased) {
+				Exception error = errors.get(mail.getId());
+				if (error == null) {
+					mail.setStatus(EmailStatus.SENT);
+					mail.setSentAt(now);
+					sent.increment();
+				} else {
+					mail.setStatus(EmailStatus.PENDING);
+					markFailed(mail, error, now);
+				}
+			}
+			outboxRepository.saveAll(leased);
+		});
+	}
+
+	private void markFailed(EmailOutbox mail, Exception error, LocalDateTime now) {
+		// already counted when the batch was claimed
+		int attempts = mail.getAttempts();
+		mail.setLastError(truncate(error.getMessage()));
+		failed.increment();
+
+		if (attempts >= maxAttempts) {
+			mail.setStatus(EmailStatus.DEAD);
+			deadLettered.increment();
+			return;
+		}
+
+		// 30s, 60s, 120s ... capped
+		long backoff = Math.min(maxBackoffSeconds, baseBackoffSeconds << Math.min(attempts - 1, 20));
+		mail.setNextAttemptAt(now.plusSeconds(backoff));
+	}
+
+	private SimpleMailMessage toMessage(EmailOutbox mail) {
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setFrom(emailService.getUsername());
+		message.setTo(mail.getRecipient());
+		message.setSubject(mail.getSubject());
+		message.setText(mail.getBody());
+		return message;
+	}
+
+	private String truncate(String value) {
+		if (value == null) {
+			return null;
+		}
+		return value.length() > 1000 ? value.substring(0, 1000) : value;
+	}
+
+	public Map<String, Object> stats() {
+		return Map.of(
+				"pending", outboxRepository.countByStatus(EmailStatus.PENDING),
+				"dead", outboxRepository.countByStatus(EmailStatus.DEAD),
+				"sent", sent.sum(),
+				"failedAttempts", failed.sum(),
+				"deadLettered", deadLettered.sum()
+		);
+	}
+}
@@ -1,14 +1,25 @@
 package com.ts.services;
 
+import java.time.LocalDateTime;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import com.ts.enums.EmailStatus;
+import com.ts.models.EmailOutbox;
+import com.ts.repositories.EmailOutboxRepository;
+
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
+/**
+ * Queues outgoing mail in the email_outbox table. Delivery happens in the
+ * background through EmailOutboxDispatcher, so request threads only pay for
+ * one insert. One-time passwords are the exception (see otpMail).
+ */
 @Service
 @RequiredArgsConstructor
 @ConfigurationProperties("spring.mail")
@@ -17,21 +28,27 @@ public class EmailService {
 	@Getter @Setter
 	private String username;
 
+    private final EmailOutboxRepository outboxRepository;
     private final JavaMailSender mailSender;
 
     public void sendEmail(String to, String subject, String body) {
     	
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(username);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-        
-        mailSender.send(message);
-        
-        System.out.println("From Email is :"+username + ", To Email is :"+to+"--- Mail sent");
+        EmailOutbox mail = new EmailOutbox();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(body);
+        mail.setStatus(EmailStatus.PENDING);
+        mail.setAttempts(0);
+        mail.setCreatedAt(LocalDateTime.now());
+        mail.setNextAttemptAt(mail.getCreatedAt());
+
+        outboxRepository.save(mail);
     }
 
+	/**
+	 * Sent directly and never written to the outbox: a stored body would leave
+	 * a usable password-reset code in the database.
+	 */
 	public void otpMail(SimpleMailMessage message) {
 		
 		message.setFrom(username);
@@ -0,0 +1,372 @@
+package com.ts.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ts.dtos.EmployeeCreateRequest;
+import com.ts.dtos.EmployeeKeyRow;
+import com.ts.dtos.ImportResult;
+import com.ts.enums.ExportFormat;
+import com.ts.enums.Role;
+import com.ts.repositories.EmployeeRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Streams employees from CSV or NDJSON into the employees table.
+ *
+ * BCrypt runs on a fixed worker pool while the file is still being read,
+ * uniqueness is checked in memory against one prefetch of existing emails and
+ * codes, and ids are reserved from the entity's own sequence up front so each
+ * row (including its generated EIDC code) is inserted exactly once through a
+ * JDBC batch.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "employees.import")
+public class EmployeeImportService {
+
+	private static final int MAX_REPORTED_ERRORS = 100;
+
+	private static final String INSERT_SQL =
+			"insert into employees (id, employee_code, name, email, password, phone, joining_date, role, is_active, created_at) "
+			+ "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	@Getter @Setter
+	private int batchSize = 500;
+
+	@Getter @Setter
+	private int hashThreads = Runtime.getRuntime().availableProcessors();
+
+	// sequence Hibernate uses for Employee ids (pooled optimizer)
+	@Getter @Setter
+	private String idSequence = "employee_seq";
+
+	private final EmployeeRepository employeeRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final PlatformTransactionManager transactionManager;
+	private final PasswordEncoder passwordEncoder;
+	private final ObjectMapper objectMapper;
+
+	private ExecutorService hashPool;
+
+	// ids left over from the last reserved sequence block
+	private long nextId = 1;
+	private long idLimit = 0;
+
+	@PostConstruct
+	void start() {
+		hashPool = Executors.newFixedThreadPool(Math.max(1, hashThreads));
+	}
+
+	@PreDestroy
+	void stop() {
+		hashPool.shutdownNow();
+	}
+
+	public synchronized ImportResult importEmployees(InputStream in, ExportFormat format) throws IOException {
+
+		long started = System.currentTimeMillis();
+
+		Set<String> emails = new HashSet<>();
+		Set<String> codes = new HashSet<>();
+		for (EmployeeKeyRow row : employeeRepository.findAllKeys()) {
+			if (row.getEmail() != null) {
+				emails.add(normalize(row.getEmail()));
+			}
+			if (row.getEmployeeCode() != null) {
+				codes.add(normalize(row.getEmployeeCode()));
+			}
+		}
+
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		ImportResult result = new ImportResult();
+		List<PendingEmployee> batch = new ArrayList<>(batchSize);
+
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String[] header = null;
+		String line;
+		long lineNo = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNo++;
+			if (line.isBlank()) {
+				continue;
+			}
+			if (format == ExportFormat.CSV && header == null) {
+				header = parseCsvLine(line);
+				continue;
+			}
+			result.setProcessed(result.getProcessed() + 1);
+
+			try {
+				EmployeeCreateRequest req = format == ExportFormat.CSV
+						? fromCsv(header, parseCsvLine(line))
+						: objectMapper.readValue(line, EmployeeCreateRequest.class);
+				validate(req, emails, codes);
+
+				String password = req.getPassword();
+				batch.add(new PendingEmployee(lineNo, req, hashPool.submit(() -> passwordEncoder.encode(password))));
+			} catch (RuntimeException e) {
+				fail(result, "line " + lineNo + ": " + e.getMessage(), 1);
+			}
+
+			if (batch.size() >= batchSize) {
+				writeBatch(tx, batch, emails, codes, result);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			writeBatch(tx, batch, emails, codes, result);
+		}
+
+		long duration = Math.max(1, System.currentTimeMillis() - started);
+		result.setDurationMs(duration);
+		result.setRecordsPerSecond(result.getImported() * 1000.0 / duration);
+		return result;
+	}
+
+	/* ================= BATCH WRITE ================= */
+
+	private void writeBatch(TransactionTemplate tx, List<PendingEmployee> batch,
+			Set<String> emails, Set<String> codes, ImportResult result) {
+
+		LocalDateTime now = LocalDateTime.now();
+		List<Object[]> rows = new ArrayList<>(batch.size());
+		List<PendingEmployee> written = new ArrayList<>(batch.size());
+
+		for (PendingEmployee p : batch) {
+			EmployeeCreateRequest req = p.request;
+			String hash;
+			try {
+				hash = p.passwordHash.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Employee import interrupted");
+			} catch (ExecutionException e) {
+				release(p, emails, codes);
+				fail(result, "line " + p.lineNo + ": " + e.getCause().getMessage(), 1);
+				continue;
+			}
+
+			long id = reserveId();
+			String code = req.getEmployeeCode();
+			if (code == null) {
+				code = "EIDC" + id;
+				if (!codes.add(normalize(code))) {
+					// the code is someone else's claim; only the email is ours to give back
+					release(p, emails, codes);
+					fail(result, "line " + p.lineNo + ": generated code " + code + " already exists", 1);
+					continue;
+				}
+				p.claimedCode = code;
+			}
+
+			rows.add(new Object[] {
+					id,
+					code,
+					req.getName().trim(),
+					req.getEmail().trim(),
+					hash,
+					req.getPhone(),
+					req.getJoiningDate() == null ? null : Date.valueOf(req.getJoiningDate()),
+					req.getRole().name(),
+					req.getIsActive() == null ? Boolean.TRUE : req.getIsActive(),
+					Timestamp.valueOf(now)
+			});
+			written.add(p);
+		}
+
+		if (rows.isEmpty()) {
+			return;
+		}
+
+		try {
+			tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+		} catch (RuntimeException e) {
+			written.forEach(p -> release(p, emails, codes));
+			fail(result, "batch of " + rows.size() + " rejected: " + e.getMessage(), rows.size());
+			return;
+		}
+
+		result.setImported(result.getImported() + rows.size());
+		System.out.println("Employee import: " + result.getImported() + " imported");
+	}
+
+	/*
+	 * A row that was not inserted gives its email and code back, so a later
+	 * line with the same keys is imported instead of rejected as a duplicate.
+	 */
+	private void release(PendingEmployee p, Set<String> emails, Set<String> codes) {
+		emails.remove(normalize(p.request.getEmail()));
+		if (p.claimedCode != null) {
+			codes.remove(normalize(p.claimedCode));
+		}
+	}
+
+	/*
+	 * Hibernate's pooled optimizer treats every nextval v as the block
+	 * (v - increment, v], so taking whole blocks here never overlaps ids
+	 * handed out by JPA saves on this or any other node.
+	 */
+	private long reserveId() {
+		if (nextId > idLimit) {
+			Long hi = jdbcTemplate.queryForObject("select nextval('" + idSequence + "')", Long.class);
+			Long increment = jdbcTemplate.queryForObject(
+					"select increment_by from pg_sequences where sequencename = ?", Long.class, idSequence);
+			nextId = Math.max(1, hi - increment + 1);
+			idLimit = hi;
+		}
+		return nextId++;
+	}
+
+	/* ================= VALIDATION ================= */
+
+	private void validate(EmployeeCreateRequest req, Set<String> emails, Set<String> codes) {
+		if (req.getName() == null || req.getName().isBlank()) {
+			throw new IllegalArgumentException("name is required");
+		}
+		if (req.getEmail() == null || req.getEmail().isBlank()) {
+			throw new IllegalArgumentException("email is required");
+		}
+		if (req.getPassword() == null || req.getPassword().isEmpty()) {
+			throw new IllegalArgumentException("password is required");
+		}
+		if (req.getRole() == null) {
+			throw new IllegalArgumentException("role is required");
+		}
+		if (req.getEmployeeCode() != null && req.getEmployeeCode().isBlank()) {
+			req.setEmployeeCode(null);
+		}
+
+		String email = normalize(req.getEmail());
+		String code = req.getEmployeeCode() == null ? null : normalize(req.getEmployeeCode());
+		if (emails.contains(email)) {
+			throw new IllegalArgumentException("Employee with email " + req.getEmail() + " already exists");
+		}
+		if (code != null && codes.contains(code)) {
+			throw new IllegalArgumentException("Employee with code " + req.getEmployeeCode() + " already exists");
+		}
+
+		// claim both keys so later lines in the same file are checked too
+		emails.add(email);
+		if (code != null) {
+			codes.add(code);
+			req.setEmployeeCode(req.getEmployeeCode().trim());
+		}
+	}
+
+	/* ================= CSV ================= */
+
+	private EmployeeCreateRequest fromCsv(String[] header, String[] values) {
+		Map<String, String> row = new HashMap<>();
+		for (int i = 0; i < header.length && i < values.length; i++) {
+			String value = values[i].trim();
+			row.put(header[i].trim(), value.isEmpty() ? null : value);
+		}
+
+		EmployeeCreateRequest req = new EmployeeCreateRequest();
+		req.setEmployeeCode(row.get("employeeCode"));
+		req.setName(row.get("name"));
+		req.setEmail(row.get("email"));
+		req.setPassword(row.get("password"));
+		req.setPhone(row.get("phone"));
+		if (row.get("role") != null) {
+			req.setRole(Role.valueOf(row.get("role").toUpperCase(Locale.ROOT)));
+		}
+		if (row.get("joiningDate") != null) {
+			req.setJoiningDate(LocalDate.parse(row.get("joiningDate")));
+		}
+		if (row.get("isActive") != null) {
+			req.setIsActive(Boolean.parseBoolean(row.get("isActive")));
+		}
+		return req;
+	}
+
+	private String[] parseCsvLine(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					current.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					current.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(current.toString());
+				current.setLength(0);
+			} else {
+				current.append(c);
+			}
+		}
+		values.add(current.toString());
+		return values.toArray(new String[0]);
+	}
+
+	/* ================= HELPERS ================= */
+
+	private String normalize(String key) {
+		return key.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private void fail(ImportResult result, String message, long count) {
+		result.setFailed(result.getFailed() + count);
+		if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+			result.getErrors().add(message);
+		}
+	}
+
+	private static class PendingEmployee {
+		private final long lineNo;
+		private final EmployeeCreateRequest request;
+		private final Future<String> passwordHash;
+
+		// provided by the line, or generated while writing
+		private String claimedCode;
+
+		PendingEmployee(long lineNo, EmployeeCreateRequest request, Future<String> passwordHash) {
+			this.lineNo = lineNo;
+			this.request = request;
+			this.passwordHash = passwordHash;
+			this.claimedCode = request.getEmployeeCode();
+		}
+	}
+}
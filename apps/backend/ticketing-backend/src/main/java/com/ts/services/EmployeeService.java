@@ -13,6 +13,7 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.ts.configs.PrincipalCache;
 import com.ts.dtos.EmployeeCreateRequest;
 import com.ts.dtos.EmployeeResponse;
 import com.ts.enums.Role;
@@ -23,16 +24,36 @@ import com.ts.models.Otp;
 import com.ts.repositories.EmployeeRepository;
 import com.ts.repositories.OtpRepository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeService implements CommandLineRunner {
 
+	private static final String PRINCIPAL_TOPIC = "principal-invalidations";
+
 	private final EmployeeRepository employeeRepository;
 	private final PasswordEncoder passwordEncoder;
 	private final OtpRepository otpRepo;
 	private final EmailService emailService;
+	private final PrincipalCache principalCache;
+	private final NotificationBus bus;
+
+	@PostConstruct
+	void subscribePrincipalInvalidations() {
+		bus.subscribe(PRINCIPAL_TOPIC, String.class, new NotificationBus.ClusterListener<>() {
+			@Override
+			public void onEvents(long xid, List<String> subjects) {
+				subjects.forEach(principalCache::invalidate);
+			}
+
+			@Override
+			public void onResync() {
+				principalCache.invalidateAll();
+			}
+		});
+	}
 
 	@Override
 	public void run(String... args) throws Exception {
@@ -70,14 +91,15 @@ public class EmployeeService implements CommandLineRunner {
 		e.setIsActive(true);
 		e.setCreatedAt(LocalDateTime.now());
 
-		employeeRepository.save(e);
-
-		if (req.getEmployeeCode() == null) {
-			e.setEmployeeCode("EIDC" + e.getId());
-		} else {
+		// the generated code needs the id, so only that case costs a second write
+		if (req.getEmployeeCode() != null) {
 			e.setEmployeeCode(req.getEmployeeCode());
+			employeeRepository.save(e);
+		} else {
+			e = employeeRepository.save(e);
+			e.setEmployeeCode("EIDC" + e.getId());
+			employeeRepository.save(e);
 		}
-		employeeRepository.save(e);
 
 		return mapToResponse(e);
 	}
@@ -104,6 +126,7 @@ public class EmployeeService implements CommandLineRunner {
 		// 1️⃣ Resource exists check
 		Employee emp = employeeRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Employee with Id " + id + " not found"));
+		String previousEmail = emp.getEmail();
 
 		// 2️⃣ Name update
 		if (hasText(request.getName())) {
@@ -158,10 +181,19 @@ public class EmployeeService implements CommandLineRunner {
 
 		// 9️⃣ Persist
 		employeeRepository.save(emp);
+		invalidatePrincipal(previousEmail);
 
 		return mapToResponse(emp);
 	}
 
+	// every node caches principals, so every node must drop the stale one
+	private void invalidatePrincipal(String subject) {
+		principalCache.invalidate(subject);
+		if (subject != null) {
+			bus.broadcast(PRINCIPAL_TOPIC, subject);
+		}
+	}
+
 	private boolean hasText(String value) {
 		return value != null && !value.trim().isEmpty();
 	}
@@ -177,6 +209,7 @@ public class EmployeeService implements CommandLineRunner {
 		Employee emp = employeeRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Employee with Id " + id + " not found"));
 		employeeRepository.delete(emp);
+		invalidatePrincipal(emp.getEmail());
 	}
 
 	public List<EmployeeResponse> getEmployeesByRole(Role role) {
@@ -239,6 +272,7 @@ public class EmployeeService implements CommandLineRunner {
 			otp.getEmployee().setPassword(passwordEncoder.encode(password));
 			otpRepo.save(otp);
 			otpRepo.delete(otp);
+			invalidatePrincipal(otp.getEmployee().getEmail());
 			return true;
 		}		
 		return false;
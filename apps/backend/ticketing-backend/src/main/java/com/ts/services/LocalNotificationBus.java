@@ -0,0 +1,32 @@
+package com.ts.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Single-node bus: messages go straight to this JVM's simple broker, and there
+ * are no other nodes to hear cluster events.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notifications.cluster.mode", havingValue = "local", matchIfMissing = true)
+public class LocalNotificationBus implements NotificationBus {
+
+	private final SimpMessagingTemplate messagingTemplate;
+
+	@Override
+	public void publish(String destination, Object payload) {
+		messagingTemplate.convertAndSend(destination, payload);
+	}
+
+	@Override
+	public void broadcast(String topic, Object event) {
+	}
+
+	@Override
+	public <T> void subscribe(String topic, Class<T> eventType, ClusterListener<T> listener) {
+	}
+}
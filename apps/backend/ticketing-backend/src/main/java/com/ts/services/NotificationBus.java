@@ -0,0 +1,36 @@
+package com.ts.services;
+
+import java.util.List;
+
+/**
+ * Carries outbound WebSocket messages to every backend node, each of which
+ * relays them to its locally connected sessions, and cluster events that keep
+ * per-node state (counters, search index, caches) in step across nodes.
+ */
+public interface NotificationBus {
+
+	void publish(String destination, Object payload);
+
+	/**
+	 * Sends {@code event} to the {@code topic} listeners of every other node
+	 * once the current transaction commits, or right away when there is none.
+	 * Nothing is sent on rollback.
+	 */
+	void broadcast(String topic, Object event);
+
+	<T> void subscribe(String topic, Class<T> eventType, ClusterListener<T> listener);
+
+	@FunctionalInterface
+	interface ClusterListener<T> {
+
+		/** Events one committed transaction ({@code xid}) broadcast on the topic. */
+		void onEvents(long xid, List<T> events);
+
+		/**
+		 * Events may have been missed (the bus lost its connection): rebuild
+		 * whatever they maintain from the database.
+		 */
+		default void onResync() {
+		}
+	}
+}
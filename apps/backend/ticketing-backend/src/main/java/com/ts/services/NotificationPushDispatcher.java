@@ -0,0 +1,154 @@
+package com.ts.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ts.dtos.NotificationResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Sends notification DTOs to their recipients' WebSocket queues off the
+ * request thread, once the surrounding transaction has committed.
+ *
+ * Notifications are buffered per recipient for {@code windowMs} and sent as
+ * one frame (a JSON array of at most {@code maxPerFlush} items). Unread count
+ * updates are coalesced to the latest value.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "notifications.push")
+public class NotificationPushDispatcher {
+
+	@Getter @Setter
+	private long windowMs = 50;
+
+	@Getter @Setter
+	private int maxPerFlush = 100;
+
+	private final NotificationBus bus;
+
+	// bounded so a stalled broker cannot pile up work; callers run overflow themselves
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			2, 2, 60, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(10_000),
+			new ThreadPoolExecutor.CallerRunsPolicy()
+	);
+
+	private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+
+	// recipient id -> notifications waiting for the next flush
+	private final Map<Long, Queue<NotificationResponse>> buffers = new ConcurrentHashMap<>();
+
+	// recipient id -> latest unread count not yet pushed
+	private final Map<Long, Long> pendingCounts = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	void start() {
+		flusher.scheduleWithFixedDelay(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+	}
+
+	public void push(List<NotificationResponse> notifications) {
+		if (notifications.isEmpty()) {
+			return;
+		}
+
+		Runnable enqueue = () -> notifications.forEach(this::enqueue);
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					enqueue.run();
+				}
+			});
+		} else {
+			enqueue.run();
+		}
+	}
+
+	public void pushUnreadCount(Long employeeId, long count) {
+		pendingCounts.put(employeeId, count);
+	}
+
+	private void enqueue(NotificationResponse dto) {
+		// compute keeps add and the empty-queue removal in flush() atomic per key
+		buffers.compute(dto.getRecipient().getId(), (id, queue) -> {
+			Queue<NotificationResponse> q = queue == null ? new ConcurrentLinkedQueue<>() : queue;
+			q.add(dto);
+			return q;
+		});
+	}
+
+	private void flush() {
+		try {
+			for (Long recipientId : buffers.keySet()) {
+				Queue<NotificationResponse> queue = buffers.get(recipientId);
+				if (queue == null) {
+					continue;
+				}
+
+				List<NotificationResponse> batch = new ArrayList<>();
+				NotificationResponse next;
+				while (batch.size() < maxPerFlush && (next = queue.poll()) != null) {
+					batch.add(next);
+				}
+
+				buffers.computeIfPresent(recipientId, (id, q) -> q.isEmpty() ? null : q);
+
+				if (!batch.isEmpty()) {
+					executor.execute(() -> send(recipientId, batch));
+				}
+			}
+
+			for (Long employeeId : pendingCounts.keySet()) {
+				Long count = pendingCounts.remove(employeeId);
+				if (count != null) {
+					executor.execute(() -> sendUnreadCount(employeeId, count));
+				}
+			}
+		} catch (RuntimeException e) {
+			// never let one bad flush cancel the schedule
+			System.out.println("Notification push flush failed: " + e.getMessage());
+		}
+	}
+
+	private void send(Long recipientId, List<NotificationResponse> batch) {
+		bus.publish(
+				"/queue/notifications/" + recipientId,
+				batch
+		);
+	}
+
+	private void sendUnreadCount(Long employeeId, long count) {
+		bus.publish(
+				"/queue/notifications/" + employeeId + "/unread-count",
+				Map.of("count", count)
+		);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		flusher.shutdown();
+		flush();
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,103 @@
+package com.ts.services;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ts.repositories.NotificationArchiveRepository;
+import com.ts.repositories.NotificationRepository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Keeps notifications and notification_recipients small: read receipts older
+ * than {@code readOlderThanDays} move to notification_archive, then
+ * notifications left without recipients are deleted. Work is done in bounded
+ * batches, each in its own short transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "notifications.retention")
+public class NotificationRetentionService {
+
+	@Getter @Setter
+	private boolean enabled = true;
+
+	@Getter @Setter
+	private int readOlderThanDays = 90;
+
+	@Getter @Setter
+	private int batchSize = 1000;
+
+	@Getter @Setter
+	private int maxBatchesPerRun = 500;
+
+	private final NotificationArchiveRepository archiveRepository;
+	private final NotificationRepository notificationRepository;
+
+	private final AtomicLong totalArchived = new AtomicLong();
+	private final AtomicLong totalOrphansDeleted = new AtomicLong();
+	private volatile Map<String, Object> lastRun = Map.of();
+
+	@Scheduled(cron = "${notifications.retention.cron:0 30 2 * * *}")
+	public void scheduledRun() {
+		if (enabled) {
+			runOnce();
+		}
+	}
+
+	public synchronized Map<String, Object> runOnce() {
+
+		long started = System.currentTimeMillis();
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime cutoff = now.minusDays(readOlderThanDays);
+
+		long archived = 0;
+		for (int i = 0; i < maxBatchesPerRun; i++) {
+			int moved = archiveRepository.archiveReadBefore(cutoff, now, batchSize);
+			archived += moved;
+			if (moved < batchSize) {
+				break;
+			}
+		}
+
+		long orphans = 0;
+		for (int i = 0; i < maxBatchesPerRun; i++) {
+			int deleted = notificationRepository.deleteOrphansBefore(cutoff, batchSize);
+			orphans += deleted;
+			if (deleted < batchSize) {
+				break;
+			}
+		}
+
+		totalArchived.addAndGet(archived);
+		totalOrphansDeleted.addAndGet(orphans);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("ranAt", now);
+		report.put("cutoff", cutoff);
+		report.put("recipientsArchived", archived);
+		report.put("notificationsDeleted", orphans);
+		report.put("durationMs", System.currentTimeMillis() - started);
+		lastRun = report;
+
+		System.out.println("Notification retention: archived " + archived
+				+ " receipts, deleted " + orphans + " notifications");
+		return report;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("totalRecipientsArchived", totalArchived.get());
+		stats.put("totalNotificationsDeleted", totalOrphansDeleted.get());
+		stats.put("lastRun", lastRun);
+		return stats;
+	}
+}
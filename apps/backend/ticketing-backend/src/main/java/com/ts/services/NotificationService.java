@@ -1,12 +1,18 @@
 package com.ts.services;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ts.dtos.CursorPage;
+import com.ts.dtos.NotificationInboxItem;
 import com.ts.dtos.NotificationResponse;
 import com.ts.enums.NotificationType;
 import com.ts.enums.Role;
@@ -18,6 +24,7 @@ import com.ts.models.Ticket;
 import com.ts.repositories.EmployeeRepository;
 import com.ts.repositories.NotificationRecipientRepository;
 import com.ts.repositories.NotificationRepository;
+import com.ts.utils.KeysetCursor;
 import com.ts.utils.NotificationMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -27,10 +34,14 @@ import lombok.RequiredArgsConstructor;
 @Transactional
 public class NotificationService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepo;
     private final NotificationRecipientRepository recipientRepo;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationPushDispatcher pushDispatcher;
     private final EmployeeRepository employeeRepository;
+    private final UnreadCounterService unreadCounter;
 
     /**
      * Create + send notification to ONE employee
@@ -42,6 +53,31 @@ public class NotificationService {
             String message,
             NotificationType type
     ) {
+        createAndSendNotification(List.of(recipient), ticket, title, message, type);
+    }
+
+    /**
+     * Create ONE notification shared by many employees.
+     * Recipient rows are inserted as a JDBC batch and pushes happen off-thread.
+     */
+    public void createAndSendNotification(
+            Collection<Employee> recipients,
+            Ticket ticket,
+            String title,
+            String message,
+            NotificationType type
+    ) {
+        // one row per employee, even if the caller passes duplicates
+        Map<Long, Employee> unique = new LinkedHashMap<>();
+        for (Employee e : recipients) {
+            if (e != null) {
+                unique.putIfAbsent(e.getId(), e);
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
         // 1️⃣ Create Notification
         Notification notification = new Notification();
         notification.setTitle(title);
@@ -52,22 +88,26 @@ public class NotificationService {
 
         Notification savedNotification = notificationRepo.save(notification);
 
-        // 2️⃣ Create NotificationRecipient
-        NotificationRecipient nr = new NotificationRecipient();
-        nr.setNotification(savedNotification);
-        nr.setEmployee(recipient);
-        nr.setIsRead(false);
-
-        NotificationRecipient savedRecipient = recipientRepo.save(nr);
-
-        // 3️⃣ Push via WebSocket (recipient-specific DTO)
-        NotificationResponse dto = NotificationMapper.toDto(savedRecipient);
+        // 2️⃣ Create NotificationRecipients (batched on flush)
+        List<NotificationRecipient> rows = new ArrayList<>(unique.size());
+        for (Employee recipient : unique.values()) {
+            NotificationRecipient nr = new NotificationRecipient();
+            nr.setNotification(savedNotification);
+            nr.setEmployee(recipient);
+            nr.setIsRead(false);
+            nr.setCreatedAt(savedNotification.getCreatedAt());
+            rows.add(nr);
+        }
 
-        messagingTemplate.convertAndSend(
-        	    "/queue/notifications/" + recipient.getId(),
-        	    dto
-        	);
+        List<NotificationRecipient> savedRecipients = recipientRepo.saveAll(rows);
+        unique.keySet().forEach(id -> unreadCounter.adjust(id, 1));
 
+        // 3️⃣ Push via WebSocket (recipient-specific DTO) after commit
+        pushDispatcher.push(
+                savedRecipients.stream()
+                        .map(NotificationMapper::toDto)
+                        .toList()
+        );
     }
 
     /**
@@ -83,6 +123,38 @@ public class NotificationService {
                 .toList();
     }
 
+    /**
+     * One keyset page of the inbox, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationInboxItem> getInboxPage(
+            Employee employee,
+            String cursor,
+            Integer size,
+            boolean unreadOnly,
+            NotificationType type
+    ) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // fetch one extra row to know whether another page exists
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<NotificationInboxItem> rows = after == null
+                ? recipientRepo.findInboxFirstPage(employee.getId(), unreadOnly, type, Limit.of(pageSize + 1))
+                : recipientRepo.findInboxPageAfter(employee.getId(), unreadOnly, type,
+                        after.getAt(), after.getId(), Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationInboxItem> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationInboxItem last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getRecipientId()).encode();
+        }
+
+        return new CursorPage<>(page, nextCursor, hasMore);
+    }
+
     /**
      * Fetch unread notifications
      */
@@ -97,34 +169,50 @@ public class NotificationService {
     }
 
     /**
-     * Mark single notification as read
+     * Unread badge count, served from memory
+     */
+    @Transactional(readOnly = true)
+    public long getUnreadCount(Employee employee) {
+        return unreadCounter.get(employee.getId());
+    }
+
+    /**
+     * Mark single notification as read, in one conditional UPDATE
      */
     public void markAsRead(Long notificationId, Employee employee) {
 
-        NotificationRecipient nr = recipientRepo
-                .findByNotificationIdAndEmployee(notificationId, employee)
-                .orElseThrow(() -> new RuntimeException("Notification not found"));
+        int updated = recipientRepo.markRead(employee.getId(), List.of(notificationId), LocalDateTime.now());
 
-        nr.setIsRead(true);
-        nr.setReadAt(LocalDateTime.now());
+        // nothing flipped: either already read or not this employee's notification
+        if (updated == 0 && recipientRepo.findByNotificationIdAndEmployee(notificationId, employee).isEmpty()) {
+            throw new RuntimeException("Notification not found");
+        }
 
-        recipientRepo.save(nr);
+        unreadCounter.adjust(employee.getId(), -updated);
     }
 
     /**
-     * Mark all notifications as read for user
+     * Mark all notifications as read for user, in one UPDATE
      */
-    public void markAllAsRead(Employee employee) {
+    public int markAllAsRead(Employee employee) {
 
-        List<NotificationRecipient> unread =
-                recipientRepo.findByEmployeeAndIsReadFalse(employee);
+        int updated = recipientRepo.markAllRead(employee.getId(), LocalDateTime.now());
+        unreadCounter.adjust(employee.getId(), -updated);
+        return updated;
+    }
 
-        unread.forEach(nr -> {
-            nr.setIsRead(true);
-            nr.setReadAt(LocalDateTime.now());
-        });
+    /**
+     * Mark the selected notifications as read for user, in one UPDATE
+     */
+    public int markAsRead(Collection<Long> notificationIds, Employee employee) {
+
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
 
-        recipientRepo.saveAll(unread);
+        int updated = recipientRepo.markRead(employee.getId(), notificationIds, LocalDateTime.now());
+        unreadCounter.adjust(employee.getId(), -updated);
+        return updated;
     }
 
     public void notifyAdmins(
@@ -135,15 +223,13 @@ public class NotificationService {
         List<Employee> admins = employeeRepository.findAllByRole(Role.ADMIN);
 //        		.orElseThrow(()-> new ResourceNotFoundException("Admin not found"));
 
-        for (var admin : admins) {
-            createAndSendNotification(
-                    admin,
-                    ticket,
-                    title,
-                    message,
-                    NotificationType.TICKET_COMMENT_ADDED
-            );
-        }
+        createAndSendNotification(
+                admins,
+                ticket,
+                title,
+                message,
+                NotificationType.TICKET_COMMENT_ADDED
+        );
     }
 
 }
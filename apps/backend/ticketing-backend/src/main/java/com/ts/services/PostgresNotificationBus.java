@@ -0,0 +1,428 @@
+package com.ts.services;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ts.models.NotificationBusPayload;
+import com.ts.repositories.NotificationBusPayloadRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Multi-node bus over Postgres LISTEN/NOTIFY. Every node publishes with
+ * pg_notify and relays whatever it hears on the channel, including its own
+ * messages, to its local sessions.
+ *
+ * Cluster events go over a second channel. They are queued on the
+ * transaction and sent just before it commits, so Postgres delivers them only
+ * if it does; receivers skip their own. A message too large for NOTIFY is
+ * stored in notification_bus_payloads and only its id is sent, for every node
+ * to read back.
+ *
+ * The listener holds its own connection, opened with DriverManager outside
+ * the pool, so a LISTEN session never takes a pooled connection away from
+ * requests. The driver is only needed at runtime; its notification API is
+ * reached through reflection.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notifications.cluster.mode", havingValue = "postgres")
+public class PostgresNotificationBus implements NotificationBus {
+
+	private static final String CHANNEL = "ts_notifications";
+	private static final String CLUSTER_CHANNEL = "ts_cluster";
+
+	// NOTIFY payloads must stay below 8000 bytes
+	private static final int MAX_PAYLOAD_BYTES = 7900;
+
+	// sent instead of a payload that was stored in notification_bus_payloads
+	private static final String STORED_PREFIX = "stored:";
+
+	// long enough for every node to have read a stored payload
+	private static final int STORED_RETENTION_MINUTES = 10;
+
+	private static final long POLL_TIMEOUT_MS = 500;
+	private static final long RECONNECT_DELAY_MS = 2000;
+
+	private final Environment environment;
+	private final JdbcTemplate jdbcTemplate;
+	private final NotificationBusPayloadRepository payloadRepository;
+	private final SimpMessagingTemplate messagingTemplate;
+	private final ObjectMapper objectMapper;
+	private final TransactionIds transactionIds;
+
+	private final String nodeId = UUID.randomUUID().toString();
+
+	// keeps otherwise identical NOTIFYs in one transaction from being collapsed
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final Map<String, List<Subscription<?>>> subscriptions = new ConcurrentHashMap<>();
+
+	// applies cluster events in arrival order without holding up the WebSocket relay
+	private final ExecutorService clusterExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "cluster-events");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private volatile boolean running;
+	private Thread listener;
+	private PgNotifications pgNotifications;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class Envelope {
+		private String destination;
+		private Object payload;
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class ClusterMessage {
+		private String origin;
+		private long seq;
+		private long xid;
+		private String topic;
+		private List<Object> events;
+	}
+
+	private final class Subscription<T> {
+		private final Class<T> eventType;
+		private final ClusterListener<T> listener;
+
+		private Subscription(Class<T> eventType, ClusterListener<T> listener) {
+			this.eventType = eventType;
+			this.listener = listener;
+		}
+
+		private void deliver(long xid, List<Object> events) {
+			List<T> converted = new ArrayList<>(events.size());
+			for (Object event : events) {
+				converted.add(objectMapper.convertValue(event, eventType));
+			}
+			listener.onEvents(xid, converted);
+		}
+	}
+
+	/** org.postgresql.PGConnection#getNotifications and PGNotification, looked up once. */
+	private static final class PgNotifications {
+		private final Class<?> connectionType;
+		private final Method getNotifications;
+		private final Method getName;
+		private final Method getParameter;
+
+		private PgNotifications() throws ReflectiveOperationException {
+			connectionType = Class.forName("org.postgresql.PGConnection");
+			getNotifications = connectionType.getMethod("getNotifications", int.class);
+			Class<?> notificationType = Class.forName("org.postgresql.PGNotification");
+			getName = notificationType.getMethod("getName");
+			getParameter = notificationType.getMethod("getParameter");
+		}
+
+		private Object[] poll(Connection conn, int timeoutMs) throws SQLException {
+			try {
+				return (Object[]) getNotifications.invoke(conn.unwrap(connectionType), timeoutMs);
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof SQLException sql) {
+					throw sql;
+				}
+				throw new IllegalStateException(e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private String name(Object notification) {
+			return read(getName, notification);
+		}
+
+		private String parameter(Object notification) {
+			return read(getParameter, notification);
+		}
+
+		private String read(Method method, Object notification) {
+			try {
+				return (String) method.invoke(notification);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	@PostConstruct
+	void start() throws SQLException, ReflectiveOperationException {
+		pgNotifications = new PgNotifications();
+
+		// listen before anything seeds from the database, so no commit can fall
+		// between a seed's snapshot and the first event this node hears
+		Connection first = connect();
+
+		running = true;
+		listener = new Thread(() -> listen(first), "notification-bus-listener");
+		listener.setDaemon(true);
+		listener.start();
+	}
+
+	@PreDestroy
+	void stop() {
+		running = false;
+		listener.interrupt();
+		clusterExecutor.shutdownNow();
+	}
+
+	/* ================= SEND ================= */
+
+	@Override
+	public void publish(String destination, Object payload) {
+		notify(CHANNEL, objectMapper.writeValueAsString(new Envelope(destination, payload)));
+	}
+
+	@Override
+	public void broadcast(String topic, Object event) {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			send(topic, List.of(event), TransactionIds.UNKNOWN);
+			return;
+		}
+
+		@SuppressWarnings("unchecked")
+		Map<String, List<Object>> queued = (Map<String, List<Object>>) TransactionSynchronizationManager.getResource(this);
+		if (queued == null) {
+			queued = queueOnTransaction();
+		}
+		queued.computeIfAbsent(topic, k -> new ArrayList<>()).add(event);
+	}
+
+	private Map<String, List<Object>> queueOnTransaction() {
+		Map<String, List<Object>> queued = new LinkedHashMap<>();
+		long xid = transactionIds.current();
+
+		TransactionSynchronizationManager.bindResource(this, queued);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				queued.forEach((topic, events) -> send(topic, events, xid));
+			}
+
+			@Override
+			public void suspend() {
+				TransactionSynchronizationManager.unbindResource(PostgresNotificationBus.this);
+			}
+
+			@Override
+			public void resume() {
+				TransactionSynchronizationManager.bindResource(PostgresNotificationBus.this, queued);
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(PostgresNotificationBus.this);
+			}
+		});
+		return queued;
+	}
+
+	private void send(String topic, List<Object> events, long xid) {
+		ClusterMessage message = new ClusterMessage(nodeId, sequence.incrementAndGet(), xid, topic, events);
+		notify(CLUSTER_CHANNEL, objectMapper.writeValueAsString(message));
+	}
+
+	private void notify(String channel, String json) {
+		String payload = json;
+		if (json.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+			NotificationBusPayload stored = payloadRepository.save(
+					new NotificationBusPayload(null, json, LocalDateTime.now()));
+			payload = STORED_PREFIX + stored.getId();
+		}
+
+		String notification = payload;
+		jdbcTemplate.execute("select pg_notify(?, ?)", (PreparedStatement ps) -> {
+			ps.setString(1, channel);
+			ps.setString(2, notification);
+			return ps.execute();
+		});
+	}
+
+	@Scheduled(fixedDelay = 60_000)
+	void purgeStoredPayloads() {
+		payloadRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(STORED_RETENTION_MINUTES));
+	}
+
+	/* ================= RECEIVE ================= */
+
+	@Override
+	public <T> void subscribe(String topic, Class<T> eventType, ClusterListener<T> listener) {
+		subscriptions.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>())
+				.add(new Subscription<>(eventType, listener));
+	}
+
+	private Connection connect() throws SQLException {
+		Connection conn = DriverManager.getConnection(
+				environment.getRequiredProperty("spring.datasource.url"),
+				environment.getProperty("spring.datasource.username"),
+				environment.getProperty("spring.datasource.password"));
+		try {
+			conn.setAutoCommit(true);
+			try (Statement st = conn.createStatement()) {
+				st.execute("LISTEN " + CHANNEL);
+				st.execute("LISTEN " + CLUSTER_CHANNEL);
+			}
+			return conn;
+		} catch (SQLException e) {
+			conn.close();
+			throw e;
+		}
+	}
+
+	private void listen(Connection first) {
+		Connection conn = first;
+		try {
+			while (running) {
+				try {
+					if (conn == null) {
+						conn = connect();
+						// whatever was committed while we were away is only in the database now
+						clusterExecutor.execute(this::resync);
+					}
+					while (running) {
+						Object[] notifications = pgNotifications.poll(conn, (int) POLL_TIMEOUT_MS);
+						if (notifications == null) {
+							continue;
+						}
+						for (Object n : notifications) {
+							String payload = pgNotifications.parameter(n);
+							if (CLUSTER_CHANNEL.equals(pgNotifications.name(n))) {
+								clusterExecutor.execute(() -> receive(payload));
+							} else {
+								relay(payload);
+							}
+						}
+					}
+				} catch (SQLException e) {
+					if (!running) {
+						return;
+					}
+					System.out.println("Notification bus listener lost connection: " + e.getMessage());
+					close(conn);
+					conn = null;
+					try {
+						Thread.sleep(RECONNECT_DELAY_MS);
+					} catch (InterruptedException ie) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+		} finally {
+			close(conn);
+		}
+	}
+
+	private void relay(String notification) {
+		try {
+			String json = resolve(notification);
+			if (json == null) {
+				return;
+			}
+			Envelope envelope = objectMapper.readValue(json, Envelope.class);
+			messagingTemplate.convertAndSend(envelope.getDestination(), envelope.getPayload());
+		} catch (RuntimeException e) {
+			System.out.println("Dropping malformed bus message: " + e.getMessage());
+		}
+	}
+
+	private void receive(String notification) {
+		ClusterMessage message;
+		try {
+			String json = resolve(notification);
+			if (json == null) {
+				return;
+			}
+			message = objectMapper.readValue(json, ClusterMessage.class);
+		} catch (RuntimeException e) {
+			System.out.println("Dropping malformed cluster event: " + e.getMessage());
+			return;
+		}
+
+		if (nodeId.equals(message.getOrigin())) {
+			return;
+		}
+		for (Subscription<?> subscription : subscriptions.getOrDefault(message.getTopic(), List.of())) {
+			try {
+				subscription.deliver(message.getXid(), message.getEvents());
+			} catch (RuntimeException e) {
+				System.out.println("Cluster event handler failed for " + message.getTopic() + ": " + e.getMessage());
+			}
+		}
+	}
+
+	private void resync() {
+		for (List<Subscription<?>> topic : subscriptions.values()) {
+			for (Subscription<?> subscription : topic) {
+				try {
+					subscription.listener.onResync();
+				} catch (RuntimeException e) {
+					System.out.println("Cluster resync failed: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	// the JSON a notification stands for, reading stored payloads back by id
+	private String resolve(String notification) {
+		if (!notification.startsWith(STORED_PREFIX)) {
+			return notification;
+		}
+		long id = Long.parseLong(notification.substring(STORED_PREFIX.length()));
+		return payloadRepository.findById(id)
+				.map(NotificationBusPayload::getPayload)
+				.orElseGet(() -> {
+					System.out.println("Stored bus payload " + id + " already purged, dropping it");
+					return null;
+				});
+	}
+
+	private void close(Connection conn) {
+		if (conn == null) {
+			return;
+		}
+		try {
+			conn.close();
+		} catch (SQLException e) {
+			// already broken
+		}
+	}
+}
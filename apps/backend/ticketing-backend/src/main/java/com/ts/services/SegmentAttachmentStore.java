@@ -0,0 +1,716 @@
+package com.ts.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ts.configs.ResourceBulkheads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Packs small blobs into large append-only segment files
+ * ({@code segments/segment-000001.dat}) instead of one file each. Blobs
+ * above {@code files.segments.max-packed-size} still go to a loose
+ * {@link AttachmentBlobStore} under the same root.
+ *
+ * Each record is a fixed header (magic, type, flags, hash, raw length,
+ * stored length) followed by the payload. Deletes append a tombstone. The
+ * offset index lives in memory and is rebuilt from the headers at startup;
+ * a torn record at the tail of the last segment is truncated away. Reads are
+ * slices of a read-only mapping of the segment, streamed without copying.
+ * Blobs are buffered on the heap only while being packed, under the disk
+ * bulkhead, so at most {@code disk} permits' worth of
+ * {@code max-packed-size} buffers exist at once. Text-like payloads can be
+ * Deflate-compressed, and a scheduled job rewrites sealed segments whose
+ * dead bytes pass a threshold.
+ *
+ * The index lives in this process only, so the store is single-node: it
+ * refuses to start with {@code notifications.cluster.mode=postgres} and
+ * holds an exclusive lock on the segment directory while open.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "files")
+@ConditionalOnProperty(name = "files.storage", havingValue = "segment")
+public class SegmentAttachmentStore implements AttachmentStorage {
+
+	private static final int MAGIC = 0x54534231; // "TSB1"
+	private static final byte TYPE_DATA = 0;
+	private static final byte TYPE_TOMBSTONE = 1;
+	private static final byte FLAG_DEFLATED = 1;
+	private static final int HASH_BYTES = 32;
+	private static final int HEADER_BYTES = 4 + 1 + 1 + HASH_BYTES + 8 + 4;
+
+	@Getter @Setter
+	private String path; // uploads/images
+
+	private final Environment environment;
+	private final ResourceBulkheads bulkheads;
+
+	@Getter
+	private final Segments segments = new Segments();
+
+	@Getter @Setter
+	public static class Segments {
+		private int maxPackedSize = 1024 * 1024;
+		private long segmentSize = 256L * 1024 * 1024;
+		private boolean compressText = true;
+		private double compactionThreshold = 0.5;
+	}
+
+	private static class Location {
+		private final int segment;
+		private final long payloadOffset;
+		private final int storedLength;
+		private final long rawLength;
+		private final boolean deflated;
+
+		Location(int segment, long payloadOffset, int storedLength, long rawLength, boolean deflated) {
+			this.segment = segment;
+			this.payloadOffset = payloadOffset;
+			this.storedLength = storedLength;
+			this.rawLength = rawLength;
+			this.deflated = deflated;
+		}
+
+		long recordLength() {
+			return HEADER_BYTES + storedLength;
+		}
+	}
+
+	private static class Packed {
+		private final Location location;
+		private final ByteBuffer payload;
+
+		Packed(Location location, ByteBuffer payload) {
+			this.location = location;
+			this.payload = payload;
+		}
+	}
+
+	/* Reads a buffer (a slice of a segment mapping) as a stream, without copying it. */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
+	private final AttachmentBlobStore loose = new AttachmentBlobStore();
+
+	// hash -> where its live record sits
+	private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+	// segment id -> bytes no longer reachable from the index
+	private final Map<Integer, AtomicLong> deadBytes = new ConcurrentHashMap<>();
+
+	private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+	// hash -> when an upload last stored or matched a packed blob, since startup
+	private final Map<String, Long> lastStoredAt = new ConcurrentHashMap<>();
+
+	// writers serialize on appendLock; segmentLock only guards deleting a compacted segment
+	private final Object appendLock = new Object();
+	private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+	private FileChannel lockChannel;
+	private FileChannel active;
+	private int activeId;
+	private long activeSize;
+
+	private final AtomicLong deduplicated = new AtomicLong();
+	private final AtomicLong compactedSegments = new AtomicLong();
+	private final AtomicLong reclaimedBytes = new AtomicLong();
+
+	@PostConstruct
+	void open() throws IOException {
+		if (segments.getSegmentSize() > Integer.MAX_VALUE) {
+			throw new IllegalStateException("files.segments.segment-size must fit in an int");
+		}
+		if ("postgres".equalsIgnoreCase(environment.getProperty("notifications.cluster.mode"))) {
+			throw new IllegalStateException("files.storage=segment keeps its index in one node's memory and cannot"
+					+ " be shared; use files.storage=blob with notifications.cluster.mode=postgres");
+		}
+		loose.setPath(path);
+		Files.createDirectories(segmentRoot());
+		lockDirectory();
+
+		List<Integer> ids = segmentIds();
+		for (int i = 0; i < ids.size(); i++) {
+			rebuild(ids.get(i), i == ids.size() - 1);
+		}
+
+		if (ids.isEmpty()) {
+			openActive(1);
+		} else {
+			openActive(ids.get(ids.size() - 1));
+		}
+		System.out.println("Segment store: " + index.size() + " blobs in " + Math.max(1, ids.size()) + " segments");
+	}
+
+	@PreDestroy
+	void close() throws IOException {
+		synchronized (appendLock) {
+			try {
+				active.force(true);
+				active.close();
+			} finally {
+				lockChannel.close();
+			}
+		}
+	}
+
+	/*
+	 * A second process appending to the same segments would interleave
+	 * records the first one's index knows nothing about.
+	 */
+	private void lockDirectory() throws IOException {
+		lockChannel = FileChannel.open(segmentRoot().resolve(".lock"),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		FileLock lock;
+		try {
+			lock = lockChannel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		}
+		if (lock == null) {
+			lockChannel.close();
+			throw new IllegalStateException("Segment store " + segmentRoot().toAbsolutePath()
+					+ " is already open in another process");
+		}
+	}
+
+	/* ================= WRITE ================= */
+
+	@Override
+	public StoredBlob store(InputStream in) throws IOException {
+		// the head buffer is up to max-packed-size of heap: only hold it under a disk permit
+		return bulkheads.disk().call(() -> pack(in));
+	}
+
+	private StoredBlob pack(InputStream in) throws IOException {
+		byte[] head = in.readNBytes(segments.getMaxPackedSize() + 1);
+		if (head.length > segments.getMaxPackedSize()) {
+			return loose.store(new SequenceInputStream(new ByteArrayInputStream(head), in));
+		}
+
+		String hash = HexFormat.of().formatHex(sha256().digest(head));
+		if (markStored(hash)) {
+			deduplicated.incrementAndGet();
+			return new StoredBlob(hash, head.length, false);
+		}
+
+		byte[] payload = head;
+		boolean deflated = false;
+		if (segments.isCompressText() && looksLikeText(head)) {
+			byte[] compressed = deflate(head);
+			if (compressed.length < head.length * 0.9) {
+				payload = compressed;
+				deflated = true;
+			}
+		}
+
+		synchronized (appendLock) {
+			// an identical upload may have been appended while we were hashing
+			if (markStored(hash)) {
+				deduplicated.incrementAndGet();
+				return new StoredBlob(hash, head.length, false);
+			}
+			append(TYPE_DATA, hash, deflated, head.length, payload, payload.length);
+			lastStoredAt.put(hash, System.currentTimeMillis());
+		}
+		return new StoredBlob(hash, head.length, true);
+	}
+
+	@Override
+	public StoredBlob adopt(Path file, String hash) throws IOException {
+		if (Files.size(file) > segments.getMaxPackedSize()) {
+			return loose.adopt(file, hash);
+		}
+		try (InputStream in = Files.newInputStream(file)) {
+			return store(in);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Override
+	public boolean delete(String hash) throws IOException {
+		synchronized (appendLock) {
+			Location location = index.get(hash);
+			if (location == null) {
+				return loose.delete(hash);
+			}
+			append(TYPE_TOMBSTONE, hash, false, 0, null, 0);
+			index.remove(hash);
+			lastStoredAt.remove(hash);
+			dead(location.segment, location.recordLength());
+			dead(activeId, HEADER_BYTES);
+			return true;
+		}
+	}
+
+	@Override
+	public long lastStored(String hash) throws IOException {
+		Long at = lastStoredAt.get(hash);
+		return at != null ? at : loose.lastStored(hash);
+	}
+
+	/* Notes an upload matching a stored blob; false when there is none. */
+	private boolean markStored(String hash) throws IOException {
+		if (index.containsKey(hash)) {
+			lastStoredAt.put(hash, System.currentTimeMillis());
+			return true;
+		}
+		return loose.touch(hash);
+	}
+
+	/*
+	 * Must hold appendLock. Writes header + payload at the end of the active
+	 * segment, rolling to a new segment when it would overflow.
+	 */
+	private void append(byte type, String hash, boolean deflated, long rawLength, byte[] payload, int length)
+			throws IOException {
+
+		long recordLength = HEADER_BYTES + length;
+		if (activeSize > 0 && activeSize + recordLength > segments.getSegmentSize()) {
+			active.force(true);
+			active.close();
+			openActive(activeId + 1);
+		}
+
+		ByteBuffer record = ByteBuffer.allocate((int) recordLength);
+		record.putInt(MAGIC);
+		record.put(type);
+		record.put(deflated ? FLAG_DEFLATED : 0);
+		record.put(HexFormat.of().parseHex(hash));
+		record.putLong(rawLength);
+		record.putInt(length);
+		if (length > 0) {
+			record.put(payload, 0, length);
+		}
+		record.flip();
+
+		long position = activeSize;
+		while (record.hasRemaining()) {
+			position += active.write(record, position);
+		}
+		active.force(false);
+
+		if (type == TYPE_DATA) {
+			index.put(hash, new Location(activeId, activeSize + HEADER_BYTES, length, rawLength, deflated));
+		}
+		activeSize += recordLength;
+	}
+
+	private void openActive(int id) throws IOException {
+		active = FileChannel.open(segmentPath(id),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		activeId = id;
+		activeSize = active.size();
+	}
+
+	/* ================= READ ================= */
+
+	@Override
+	public boolean exists(String hash) {
+		return index.containsKey(hash) || loose.exists(hash);
+	}
+
+	@Override
+	public long size(String hash) throws IOException {
+		Location location = index.get(hash);
+		return location != null ? location.rawLength : loose.size(hash);
+	}
+
+	@Override
+	public Path localFile(String hash) {
+		return index.containsKey(hash) ? null : loose.localFile(hash);
+	}
+
+	@Override
+	public InputStream openStream(String hash) throws IOException {
+		Packed packed = packed(hash);
+		if (packed == null) {
+			return loose.openStream(hash);
+		}
+		InputStream in = new ByteBufferInputStream(packed.payload);
+		return packed.location.deflated ? new InflaterInputStream(in) : in;
+	}
+
+	@Override
+	public void transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException {
+		ByteBuffer content = content(hash);
+		if (content == null) {
+			loose.transferTo(hash, position, count, target);
+			return;
+		}
+		long length = content.remaining();
+		if (position < 0 || count < 0 || position > length - count) {
+			throw new IOException("Range " + position + "+" + count + " is outside blob " + hash + " of " + length);
+		}
+		// in range, so both fit the buffer's int indexes
+		ByteBuffer window = content.slice(Math.toIntExact(position), Math.toIntExact(count));
+		while (window.hasRemaining()) {
+			target.write(window);
+		}
+	}
+
+	/*
+	 * The blob's bytes as a slice of the segment mapping (inflated copy when
+	 * compressed), or null when it is not packed.
+	 */
+	private ByteBuffer content(String hash) throws IOException {
+		Packed packed = packed(hash);
+		if (packed == null) {
+			return null;
+		}
+		return packed.location.deflated
+				? ByteBuffer.wrap(inflate(packed.payload, packed.location.rawLength))
+				: packed.payload;
+	}
+
+	/*
+	 * The stored record payload as a slice of the segment mapping, or null
+	 * when the blob is not packed. The slice stays readable after compaction
+	 * deletes the file.
+	 */
+	private Packed packed(String hash) throws IOException {
+		segmentLock.readLock().lock();
+		try {
+			Location location = index.get(hash);
+			if (location == null) {
+				return null;
+			}
+			long end = location.payloadOffset + location.storedLength;
+			ByteBuffer payload = mapping(location.segment, end)
+					.slice(Math.toIntExact(location.payloadOffset), location.storedLength);
+			return new Packed(location, payload);
+		} finally {
+			segmentLock.readLock().unlock();
+		}
+	}
+
+	private MappedByteBuffer mapping(int segment, long end) throws IOException {
+		MappedByteBuffer mapped = mappings.get(segment);
+		if (mapped != null && mapped.capacity() >= end) {
+			return mapped;
+		}
+		// the active segment keeps growing, so remap it when a read goes past the old end
+		try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+			MappedByteBuffer fresh = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			mappings.put(segment, fresh);
+			return fresh;
+		}
+	}
+
+	@Override
+	public boolean verify(String hash) throws IOException {
+		ByteBuffer content = content(hash);
+		if (content == null) {
+			return loose.verify(hash);
+		}
+		MessageDigest digest = sha256();
+		digest.update(content);
+		return hash.equals(HexFormat.of().formatHex(digest.digest()));
+	}
+
+	@Override
+	public Path derivedFile(String hash, String suffix) {
+		return loose.derivedFile(hash, suffix);
+	}
+
+	/* ================= INDEX REBUILD ================= */
+
+	private void rebuild(int segment, boolean last) throws IOException {
+		try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+
+			long size = channel.size();
+			long position = 0;
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+			while (position + HEADER_BYTES <= size) {
+				header.clear();
+				channel.read(header, position);
+				header.flip();
+
+				if (header.getInt() != MAGIC) {
+					break;
+				}
+				byte type = header.get();
+				boolean deflated = (header.get() & FLAG_DEFLATED) != 0;
+				byte[] hashBytes = new byte[HASH_BYTES];
+				header.get(hashBytes);
+				long rawLength = header.getLong();
+				int storedLength = header.getInt();
+
+				if (position + HEADER_BYTES + storedLength > size) {
+					break;
+				}
+
+				String hash = HexFormat.of().formatHex(hashBytes);
+				Location previous = index.remove(hash);
+				if (previous != null) {
+					dead(previous.segment, previous.recordLength());
+				}
+				if (type == TYPE_DATA) {
+					index.put(hash, new Location(segment, position + HEADER_BYTES, storedLength, rawLength, deflated));
+				} else {
+					dead(segment, HEADER_BYTES);
+				}
+				position += HEADER_BYTES + storedLength;
+			}
+
+			if (position < size) {
+				if (!last) {
+					throw new IllegalStateException("Corrupt record at " + position + " in " + segmentPath(segment));
+				}
+				// a write that was cut short by a crash
+				System.out.println("Truncating torn tail of " + segmentPath(segment) + " at " + position);
+				channel.truncate(position);
+			}
+		}
+	}
+
+	/* ================= COMPACTION ================= */
+
+	@Scheduled(fixedDelayString = "${files.segments.compaction-interval-ms:600000}")
+	public void compact() {
+		List<Integer> ids;
+		try {
+			ids = segmentIds();
+		} catch (IOException e) {
+			System.out.println("Segment compaction skipped: " + e.getMessage());
+			return;
+		}
+
+		for (int i = 0; i < ids.size(); i++) {
+			int segment = ids.get(i);
+			if (segment >= activeId) {
+				break;
+			}
+			try {
+				long size = Files.size(segmentPath(segment));
+				long dead = deadBytes.getOrDefault(segment, new AtomicLong()).get();
+				if (size == 0 || dead >= size * segments.getCompactionThreshold()) {
+					compactSegment(segment, i == 0, size);
+				}
+			} catch (IOException e) {
+				System.out.println("Compaction of segment " + segment + " failed: " + e.getMessage());
+			}
+		}
+	}
+
+	/*
+	 * Copies still-live records to the active segment one at a time, then drops
+	 * the old file. Tombstones are carried forward unless this is the oldest
+	 * segment, since only an older segment can hold the data they cancel.
+	 */
+	private void compactSegment(int segment, boolean oldest, long size) throws IOException {
+		MappedByteBuffer mapped = mapping(segment, size);
+		long position = 0;
+
+		while (position + HEADER_BYTES <= size) {
+			ByteBuffer header = mapped.slice((int) position, HEADER_BYTES);
+			header.getInt();
+			byte type = header.get();
+			boolean deflated = (header.get() & FLAG_DEFLATED) != 0;
+			byte[] hashBytes = new byte[HASH_BYTES];
+			header.get(hashBytes);
+			long rawLength = header.getLong();
+			int storedLength = header.getInt();
+			String hash = HexFormat.of().formatHex(hashBytes);
+			long payloadOffset = position + HEADER_BYTES;
+
+			synchronized (appendLock) {
+				Location current = index.get(hash);
+				if (type == TYPE_DATA && current != null && current.segment == segment
+						&& current.payloadOffset == payloadOffset) {
+					byte[] payload = new byte[storedLength];
+					mapped.slice((int) payloadOffset, storedLength).get(payload);
+					append(TYPE_DATA, hash, deflated, rawLength, payload, storedLength);
+				} else if (type == TYPE_TOMBSTONE && !oldest && current == null) {
+					append(TYPE_TOMBSTONE, hash, false, 0, null, 0);
+					dead(activeId, HEADER_BYTES);
+				}
+			}
+			position = payloadOffset + storedLength;
+		}
+
+		segmentLock.writeLock().lock();
+		try {
+			mappings.remove(segment);
+			deadBytes.remove(segment);
+			Files.deleteIfExists(segmentPath(segment));
+		} finally {
+			segmentLock.writeLock().unlock();
+		}
+		compactedSegments.incrementAndGet();
+		reclaimedBytes.addAndGet(size);
+		System.out.println("Compacted attachment segment " + segment);
+	}
+
+	/* ================= HELPERS ================= */
+
+	private void dead(int segment, long bytes) {
+		deadBytes.computeIfAbsent(segment, s -> new AtomicLong()).addAndGet(bytes);
+	}
+
+	private List<Integer> segmentIds() throws IOException {
+		List<Integer> ids = new ArrayList<>();
+		try (Stream<Path> files = Files.list(segmentRoot())) {
+			files.map(p -> p.getFileName().toString())
+					.filter(name -> name.matches("segment-\\d{6}\\.dat"))
+					.forEach(name -> ids.add(Integer.parseInt(name.substring(8, 14))));
+		}
+		ids.sort(null);
+		return ids;
+	}
+
+	private Path segmentRoot() {
+		return Paths.get(path, "segments");
+	}
+
+	private Path segmentPath(int id) {
+		return segmentRoot().resolve(String.format("segment-%06d.dat", id));
+	}
+
+	// no NUL bytes in the first 4 KB: logs, JSON, CSV, stack traces...
+	private boolean looksLikeText(byte[] bytes) {
+		int n = Math.min(bytes.length, 4096);
+		for (int i = 0; i < n; i++) {
+			if (bytes[i] == 0) {
+				return false;
+			}
+		}
+		return n > 0;
+	}
+
+	private byte[] deflate(byte[] input) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(input);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private byte[] inflate(ByteBuffer input, long rawLength) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(input);
+			byte[] out = new byte[(int) rawLength];
+			int n = 0;
+			while (n < out.length && !inflater.finished()) {
+				int r = inflater.inflate(out, n, out.length - n);
+				if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("Truncated compressed blob");
+				}
+				n += r;
+			}
+			return out;
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt compressed blob", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("packedBlobs", index.size());
+		stats.put("activeSegment", activeId);
+		stats.put("deadBytes", deadBytes.values().stream().mapToLong(AtomicLong::get).sum());
+		stats.put("deduplicated", deduplicated.get());
+		stats.put("compactedSegments", compactedSegments.get());
+		stats.put("reclaimedBytes", reclaimedBytes.get());
+		stats.put("loose", loose.stats());
+		return stats;
+	}
+}
@@ -1,28 +1,41 @@
 package com.ts.services;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.ts.configs.DownloadLinkSigner;
+import com.ts.configs.ResourceBulkheads;
+import com.ts.dtos.DownloadLinkResponse;
 import com.ts.dtos.TicketAttachmentResponse;
 import com.ts.dtos.TicketCommentResponse;
+import com.ts.enums.AttachmentRendition;
+import com.ts.enums.RenditionStatus;
+import com.ts.enums.Role;
+import com.ts.exceptions.RenditionPendingException;
 import com.ts.exceptions.ResourceNotFoundException;
 import com.ts.models.Employee;
 import com.ts.models.Ticket;
 import com.ts.models.TicketAttachment;
 import com.ts.repositories.TicketAttachmentRepository;
 import com.ts.repositories.TicketRepository;
+import com.ts.utils.FileRangeResponder;
+import com.ts.utils.ImageFormats;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -38,6 +51,22 @@ public class TicketAttachmentService {
 
 	private final TicketRepository ticketRepository;
 	private final TicketAttachmentRepository attachmentRepository;
+	private final AttachmentStorage storage;
+	private final AttachmentThumbnailService thumbnailService;
+	private final ResourceBulkheads bulkheads;
+	private final DownloadLinkSigner linkSigner;
+	private final AttachmentBlobCollector blobCollector;
+
+	@Data
+	@AllArgsConstructor
+	public static class DownloadTarget {
+		private long length;
+		private Path file; // null when the bytes are packed in a segment
+		private FileRangeResponder.ByteSource source;
+		private String fileName;
+		private String contentType;
+		private String contentHash;
+	}
 
 	/**
 	 * Anyone who can VIEW the ticket can upload attachments.
@@ -51,11 +80,7 @@ public class TicketAttachmentService {
 		// Visibility is already enforced in TicketService
 		// So no extra role/team validation here
 
-		Path ticketDir = Paths.get(path, "tickets", ticketId.toString());
-
 		try {
-			Files.createDirectories(ticketDir);
-
 			for (MultipartFile file : files) {
 
 				if (file == null || file.isEmpty()) {
@@ -63,25 +88,184 @@ public class TicketAttachmentService {
 				}
 
 				String originalFileName = file.getOriginalFilename();
-				String storedFileName = UUID.randomUUID() + "_" + originalFileName;
 
-				Path filePath = ticketDir.resolve(storedFileName);
+				// identical content is stored once and shared between attachments
+				// the multipart body is already spooled, so the permit only covers the disk copy
+				AttachmentStorage.StoredBlob blob = bulkheads.disk().call(() -> {
+					try (InputStream in = file.getInputStream()) {
+						return storage.store(in);
+					}
+				});
+				saveAttachment(ticket, originalFileName, blob, user);
+			}
+
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to upload attachment", e);
+		}
+	}
+
+	/*
+	 * Records a stored blob as an attachment of the ticket and queues its
+	 * thumbnails. Shared by the multipart and chunked upload paths.
+	 */
+	TicketAttachment saveAttachment(Ticket ticket, String fileName, AttachmentStorage.StoredBlob blob, Employee user) {
+		String hash = blob.getHash();
+
+		TicketAttachment attachment = new TicketAttachment();
+		attachment.setTicket(ticket);
+		attachment.setFileName(fileName);
+		attachment.setUploadedBy(user);
+		attachment.setSize(blob.getSize());
+		attachment.setContentHash(hash);
+		attachment.setFileUrl("/blobs/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash);
+		attachment.setUploadedAt(LocalDateTime.now());
+		RenditionStatus rendition = thumbnailService.initialStatus(hash, fileName);
+		attachment.setRenditionStatus(rendition);
+
+		TicketAttachment saved = attachmentRepository.save(attachment);
+		if (rendition == RenditionStatus.PENDING) {
+			thumbnailService.renderAfterCommit(hash);
+		}
+		return saved;
+	}
+
+	/**
+	 * Resolves an attachment for download, only for users who can view its ticket.
+	 */
+	public DownloadTarget resolveDownload(Long ticketId, Long attachmentId, Employee user) {
+		return downloadTarget(findVisibleAttachment(ticketId, attachmentId, user));
+	}
+
+	/**
+	 * Mints a short-lived link the browser can open directly, only for users
+	 * who can view the ticket.
+	 */
+	public DownloadLinkResponse createDownloadLink(Long ticketId, Long attachmentId, Employee user) {
+		findVisibleAttachment(ticketId, attachmentId, user);
+
+		long expires = linkSigner.expiresAt();
+		String url = "/tickets/" + ticketId + "/attachments/" + attachmentId + "/download"
+				+ "?expires=" + expires + "&signature=" + linkSigner.sign(ticketId, attachmentId, expires);
+		return new DownloadLinkResponse(url, expires);
+	}
+
+	/**
+	 * Resolves a download through a signed link; visibility was checked when
+	 * the link was minted.
+	 */
+	public DownloadTarget resolveSignedDownload(Long ticketId, Long attachmentId, long expires, String signature) {
+		if (!linkSigner.verify(ticketId, attachmentId, expires, signature)) {
+			throw new RuntimeException("Access denied");
+		}
+		return downloadTarget(findAttachment(ticketId, attachmentId));
+	}
+
+	private TicketAttachment findAttachment(Long ticketId, Long attachmentId) {
+		return attachmentRepository.findById(attachmentId)
+				.filter(a -> a.getTicket() != null && a.getTicket().getId().equals(ticketId))
+				.orElseThrow(() -> new ResourceNotFoundException("Attachment with id: " + attachmentId + " is not found"));
+	}
+
+	private TicketAttachment findVisibleAttachment(Long ticketId, Long attachmentId, Employee user) {
+		TicketAttachment attachment = findAttachment(ticketId, attachmentId);
+
+		Ticket ticket = attachment.getTicket();
+		if (!TicketService.canView(ticket.getCreatedBy().getId(), ticket.getCategory(), user)) {
+			throw new RuntimeException("Access denied");
+		}
+		return attachment;
+	}
 
-				Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+	private DownloadTarget downloadTarget(TicketAttachment attachment) {
+		Long attachmentId = attachment.getId();
 
-				TicketAttachment attachment = new TicketAttachment();
-				attachment.setTicket(ticket);
-				attachment.setFileName(originalFileName);
-				attachment.setUploadedBy(user);
-				attachment.setSize(file.getSize());
-				attachment.setFileUrl("/tickets/" + ticketId + "/" + storedFileName);
-				attachment.setUploadedAt(LocalDateTime.now());
+		String contentType = MediaTypeFactory.getMediaType(attachment.getFileName())
+				.orElse(MediaType.APPLICATION_OCTET_STREAM)
+				.toString();
 
-				attachmentRepository.save(attachment);
+		String hash = attachment.getContentHash();
+		if (hash != null) {
+			if (!storage.exists(hash)) {
+				throw new ResourceNotFoundException("Attachment with id: " + attachmentId + " is not found");
+			}
+			try {
+				return new DownloadTarget(storage.size(hash), storage.localFile(hash),
+						(position, count, target) -> storage.transferTo(hash, position, count, target),
+						attachment.getFileName(), contentType, hash);
+			} catch (IOException e) {
+				throw new RuntimeException("Failed to read attachment", e);
 			}
+		}
+
+		// uploads from before the blob store live at files.path + fileUrl
+		Path root = Paths.get(path).toAbsolutePath().normalize();
+		Path file = root.resolve(attachment.getFileUrl().replaceFirst("^/+", "")).normalize();
+		if (!file.startsWith(root)) {
+			throw new RuntimeException("Access denied");
+		}
+		return fileTarget(file, attachment.getFileName(), contentType, null,
+				"Attachment with id: " + attachmentId + " is not found");
+	}
+
+	/**
+	 * Resolves a thumbnail or preview, with the same visibility rules as the
+	 * original. While it is still being rendered the caller gets 202 and
+	 * should retry.
+	 */
+	public DownloadTarget resolveRendition(Long ticketId, Long attachmentId, AttachmentRendition rendition,
+			Employee user) {
+
+		TicketAttachment attachment = findVisibleAttachment(ticketId, attachmentId, user);
+		String hash = attachment.getContentHash();
+		String notFound = "No " + rendition.name().toLowerCase() + " for attachment " + attachmentId;
+		if (hash == null || !ImageFormats.canRender(attachment.getFileName())
+				|| attachment.getRenditionStatus() == RenditionStatus.FAILED) {
+			throw new ResourceNotFoundException(notFound);
+		}
+		if (!thumbnailService.requestRendered(hash)) {
+			throw new RenditionPendingException("The " + rendition.name().toLowerCase() + " is still being rendered");
+		}
 
+		Path file = thumbnailService.renditionPath(hash, rendition);
+		String baseName = attachment.getFileName().replaceFirst("\\.[^.]*$", "");
+		return fileTarget(file, baseName + "-" + rendition.name().toLowerCase() + ".jpg",
+				MediaType.IMAGE_JPEG_VALUE, hash + "-" + rendition.name().toLowerCase(), notFound);
+	}
+
+	private DownloadTarget fileTarget(Path file, String fileName, String contentType, String etagHash,
+			String notFoundMessage) {
+		try {
+			if (!Files.isRegularFile(file)) {
+				throw new ResourceNotFoundException(notFoundMessage);
+			}
+			return new DownloadTarget(Files.size(file), file, FileRangeResponder.fileSource(file), fileName,
+					contentType, etagHash);
 		} catch (IOException e) {
-			throw new RuntimeException("Failed to upload attachment", e);
+			throw new RuntimeException("Failed to read attachment", e);
+		}
+	}
+
+	/**
+	 * The uploader or an admin can remove an attachment. The stored bytes are
+	 * collected later by {@link AttachmentBlobCollector} once no other
+	 * attachment shares the same content.
+	 */
+	@Transactional
+	public void delete(Long ticketId, Long attachmentId, Employee user) {
+
+		TicketAttachment attachment = attachmentRepository.findById(attachmentId)
+				.filter(a -> a.getTicket() != null && a.getTicket().getId().equals(ticketId))
+				.orElseThrow(() -> new ResourceNotFoundException("Attachment with id: " + attachmentId + " is not found"));
+
+		boolean isUploader = attachment.getUploadedBy() != null && attachment.getUploadedBy().getId().equals(user.getId());
+		if (!isUploader && user.getRole() != Role.ADMIN) {
+			throw new RuntimeException("Access denied");
+		}
+
+		attachmentRepository.delete(attachment);
+
+		if (attachment.getContentHash() != null) {
+			blobCollector.release(attachment.getContentHash());
 		}
 	}
 
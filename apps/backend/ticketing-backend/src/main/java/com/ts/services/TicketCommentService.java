@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.ts.dtos.TicketCommentCreateRequest;
 import com.ts.dtos.TicketCommentResponse;
@@ -26,7 +27,9 @@ public class TicketCommentService {
     private final TicketRepository ticketRepository;
     private final TicketCommentRepository commentRepository;
     private final NotificationService notificationService;
+    private final TicketSearchService searchService;
 
+    @Transactional
     public void addComment(
             Long ticketId,
             TicketCommentCreateRequest req,
@@ -48,6 +51,7 @@ public class TicketCommentService {
         c.setCommentedAt(LocalDateTime.now());
 
         commentRepository.save(c);
+        searchService.indexComment(c);
 
         // 2️⃣ Send notifications
         sendCommentNotifications(ticket, c, user);
@@ -0,0 +1,443 @@
+package com.ts.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ts.dtos.EmployeeKeyRow;
+import com.ts.dtos.ImportJobResponse;
+import com.ts.dtos.ImportResult;
+import com.ts.dtos.TicketImportRecord;
+import com.ts.enums.ImportJobStatus;
+import com.ts.enums.Priority;
+import com.ts.enums.TicketStatus;
+import com.ts.exceptions.ResourceNotFoundException;
+import com.ts.models.Employee;
+import com.ts.models.Ticket;
+import com.ts.models.TicketAttachment;
+import com.ts.models.TicketComment;
+import com.ts.repositories.EmployeeRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Streams historical tickets, comments and attachment metadata from NDJSON
+ * into the database. Employee references are resolved from one in-memory
+ * lookup, rows are written through Hibernate JDBC batching one transaction
+ * per batch, and no emails or notifications are sent.
+ *
+ * Uploads are spooled to a temp file and imported as background jobs, one at
+ * a time; callers poll the job for progress and the result. A batch the
+ * database rejects is retried row by row, so only the offending rows fail.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "tickets.import")
+public class TicketImportService {
+
+	private static final int MAX_REPORTED_ERRORS = 100;
+
+	// finished jobs kept for polling
+	private static final int RETAINED_JOBS = 20;
+
+	@Getter @Setter
+	private int batchSize = 500;
+
+	private final EmployeeRepository employeeRepository;
+	private final EntityManager entityManager;
+	private final PlatformTransactionManager transactionManager;
+	private final ObjectMapper objectMapper;
+	private final TicketNumberAllocator ticketNumberAllocator;
+	private final TicketSearchService searchService;
+	private final TicketStatsService statsService;
+
+	// one worker, so imports never compete with each other for the database
+	private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "ticket-import");
+		t.setDaemon(true);
+		return t;
+	});
+
+	// insertion-ordered, guarded by itself
+	private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+	private static final class ImportJob {
+		private final String id = UUID.randomUUID().toString();
+		private final Path file;
+
+		private final AtomicLong processed = new AtomicLong();
+		private final AtomicLong imported = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+
+		private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+		private volatile long startedAt;
+		private volatile ImportResult result;
+		private volatile String error;
+
+		private ImportJob(Path file) {
+			this.file = file;
+		}
+
+		private ImportJobResponse toResponse() {
+			return new ImportJobResponse(id, status, processed.get(), imported.get(), failed.get(), result, error);
+		}
+	}
+
+	// a parsed line, kept with its number for row-level errors
+	private static final class Row {
+		private final long lineNo;
+		private final TicketImportRecord record;
+
+		private Row(long lineNo, TicketImportRecord record) {
+			this.lineNo = lineNo;
+			this.record = record;
+		}
+	}
+
+	@PreDestroy
+	void stop() {
+		jobExecutor.shutdownNow();
+	}
+
+	/* ================= JOBS ================= */
+
+	public ImportJobResponse submit(InputStream in) throws IOException {
+		Path file = Files.createTempFile("ticket-import-", ".ndjson");
+		try {
+			Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+
+		ImportJob job = new ImportJob(file);
+		synchronized (jobs) {
+			jobs.put(job.id, job);
+			evictFinishedJobs();
+		}
+		jobExecutor.execute(() -> run(job));
+		return job.toResponse();
+	}
+
+	public ImportJobResponse getJob(String jobId) {
+		ImportJob job;
+		synchronized (jobs) {
+			job = jobs.get(jobId);
+		}
+		if (job == null) {
+			throw new ResourceNotFoundException("Import job " + jobId + " not found");
+		}
+		return job.toResponse();
+	}
+
+	private void evictFinishedJobs() {
+		int excess = jobs.size() - RETAINED_JOBS;
+		Iterator<ImportJob> it = jobs.values().iterator();
+		while (excess > 0 && it.hasNext()) {
+			ImportJobStatus status = it.next().status;
+			if (status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED) {
+				it.remove();
+				excess--;
+			}
+		}
+	}
+
+	private void run(ImportJob job) {
+		job.startedAt = System.currentTimeMillis();
+		job.status = ImportJobStatus.RUNNING;
+		try (InputStream in = Files.newInputStream(job.file)) {
+			job.result = importTickets(in, job);
+			job.status = ImportJobStatus.COMPLETED;
+		} catch (IOException | RuntimeException e) {
+			System.out.println("Ticket import " + job.id + " failed: " + e.getMessage());
+			job.error = e.getMessage();
+			job.status = ImportJobStatus.FAILED;
+		} finally {
+			try {
+				Files.deleteIfExists(job.file);
+			} catch (IOException e) {
+				System.out.println("Could not delete import file " + job.file + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/* ================= IMPORT ================= */
+
+	private ImportResult importTickets(InputStream in, ImportJob job) throws IOException {
+
+		long started = job.startedAt;
+
+		Map<String, Long> employeeIds = loadEmployeeIds();
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		ImportResult result = new ImportResult();
+
+		List<Row> batch = new ArrayList<>(batchSize);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+		String line;
+		long lineNo = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNo++;
+			if (line.isBlank()) {
+				continue;
+			}
+			result.setProcessed(result.getProcessed() + 1);
+			job.processed.incrementAndGet();
+
+			try {
+				TicketImportRecord record = objectMapper.readValue(line, TicketImportRecord.class);
+				validate(record, employeeIds);
+				batch.add(new Row(lineNo, record));
+			} catch (RuntimeException e) {
+				fail(result, job, "line " + lineNo + ": " + e.getMessage());
+			}
+
+			if (batch.size() >= batchSize) {
+				writeBatch(tx, batch, employeeIds, result, job);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			writeBatch(tx, batch, employeeIds, result, job);
+		}
+
+		long duration = Math.max(1, System.currentTimeMillis() - started);
+		result.setDurationMs(duration);
+		result.setRecordsPerSecond(result.getImported() * 1000.0 / duration);
+		return result;
+	}
+
+	public Map<String, Object> progress() {
+		ImportJob running = null;
+		int queued = 0;
+		synchronized (jobs) {
+			for (ImportJob job : jobs.values()) {
+				if (job.status == ImportJobStatus.RUNNING) {
+					running = job;
+				} else if (job.status == ImportJobStatus.QUEUED) {
+					queued++;
+				}
+			}
+		}
+
+		Map<String, Object> progress = new LinkedHashMap<>();
+		progress.put("running", running != null);
+		progress.put("queued", queued);
+		if (running != null) {
+			long elapsed = Math.max(1, System.currentTimeMillis() - running.startedAt);
+			progress.put("jobId", running.id);
+			progress.put("processed", running.processed.get());
+			progress.put("imported", running.imported.get());
+			progress.put("recordsPerSecond", running.imported.get() * 1000.0 / elapsed);
+		}
+		return progress;
+	}
+
+	/* ================= BATCH WRITE ================= */
+
+	private void writeBatch(TransactionTemplate tx, List<Row> batch,
+			Map<String, Long> employeeIds, ImportResult result, ImportJob job) {
+
+		try {
+			persist(tx, batch, employeeIds);
+			imported(result, job, batch.size());
+		} catch (RuntimeException batchError) {
+			// one bad row rolls back the whole batch: retry alone to keep the good ones
+			for (Row row : batch) {
+				try {
+					persist(tx, List.of(row), employeeIds);
+					imported(result, job, 1);
+				} catch (RuntimeException e) {
+					fail(result, job, "line " + row.lineNo + ": "
+							+ NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+				}
+			}
+		}
+
+		long imported = job.imported.get();
+		long elapsed = Math.max(1, System.currentTimeMillis() - job.startedAt);
+		System.out.println("Ticket import: " + imported + " imported ("
+				+ (imported * 1000 / elapsed) + "/s)");
+	}
+
+	private void imported(ImportResult result, ImportJob job, int count) {
+		result.setImported(result.getImported() + count);
+		job.imported.addAndGet(count);
+	}
+
+	private void persist(TransactionTemplate tx, List<Row> rows, Map<String, Long> employeeIds) {
+
+		List<Ticket> tickets = new ArrayList<>(rows.size());
+		List<TicketComment> comments = new ArrayList<>();
+
+		tx.executeWithoutResult(status -> {
+			for (Row row : rows) {
+				TicketImportRecord record = row.record;
+				Ticket t = toTicket(record, employeeIds);
+				entityManager.persist(t);
+				tickets.add(t);
+
+				if (record.getComments() != null) {
+					for (TicketImportRecord.CommentRecord cr : record.getComments()) {
+						TicketComment c = new TicketComment();
+						c.setTicket(t);
+						c.setComment(cr.getComment());
+						c.setIsInternal(Boolean.TRUE.equals(cr.getIsInternal()));
+						c.setCommentedBy(reference(cr.getCommentedBy(), employeeIds));
+						c.setCommentedAt(cr.getCommentedAt() != null ? cr.getCommentedAt() : t.getCreatedAt());
+						entityManager.persist(c);
+						comments.add(c);
+					}
+				}
+
+				if (record.getAttachments() != null) {
+					for (TicketImportRecord.AttachmentRecord ar : record.getAttachments()) {
+						TicketAttachment a = new TicketAttachment();
+						a.setTicket(t);
+						a.setFileName(ar.getFileName());
+						a.setFileUrl(ar.getFileUrl());
+						a.setSize(ar.getSize());
+						a.setUploadedBy(reference(ar.getUploadedBy(), employeeIds));
+						a.setUploadedAt(ar.getUploadedAt() != null ? ar.getUploadedAt() : t.getCreatedAt());
+						entityManager.persist(a);
+					}
+				}
+			}
+			entityManager.flush();
+
+			// keep the in-memory read models in step; applied once this commits
+			for (Ticket t : tickets) {
+				statsService.ticketCreated(t.getStatus(), t.getCategory(), t.getPriority());
+				searchService.indexTicket(t);
+			}
+			comments.forEach(searchService::indexComment);
+
+			entityManager.clear();
+		});
+	}
+
+	private Ticket toTicket(TicketImportRecord r, Map<String, Long> employeeIds) {
+		LocalDateTime createdAt = r.getCreatedAt() != null ? r.getCreatedAt() : LocalDateTime.now();
+
+		Ticket t = new Ticket();
+		t.setTicketNumber(r.getTicketNumber() != null && !r.getTicketNumber().isBlank()
+				? r.getTicketNumber().trim()
+				: ticketNumberAllocator.nextTicketNumber(r.getCategory()));
+		t.setTitle(r.getTitle());
+		t.setDescription(r.getDescription());
+		t.setCategory(r.getCategory());
+		t.setStatus(r.getStatus() != null ? r.getStatus() : TicketStatus.OPEN);
+		t.setPriority(r.getPriority() != null ? r.getPriority() : Priority.MEDIUM.getLevel());
+		t.setCreatedBy(reference(r.getCreatedBy(), employeeIds));
+		t.setAssignedTo(reference(r.getAssignedTo(), employeeIds));
+		t.setCreatedAt(createdAt);
+		t.setUpdatedAt(r.getUpdatedAt() != null ? r.getUpdatedAt() : createdAt);
+		t.setResolvedAt(r.getResolvedAt());
+		return t;
+	}
+
+	/* ================= VALIDATION ================= */
+
+	private void validate(TicketImportRecord r, Map<String, Long> employeeIds) {
+		if (r.getTitle() == null || r.getTitle().isBlank()) {
+			throw new IllegalArgumentException("title is required");
+		}
+		if (r.getCategory() == null) {
+			throw new IllegalArgumentException("category is required");
+		}
+		if (r.getDescription() != null && r.getDescription().length() > 2000) {
+			throw new IllegalArgumentException("description longer than 2000 characters");
+		}
+		if (r.getPriority() != null) {
+			Priority.fromLevel(r.getPriority());
+		}
+		requireEmployee(r.getCreatedBy(), employeeIds, "createdBy");
+		if (r.getAssignedTo() != null) {
+			requireEmployee(r.getAssignedTo(), employeeIds, "assignedTo");
+		}
+		if (r.getComments() != null) {
+			for (TicketImportRecord.CommentRecord c : r.getComments()) {
+				requireEmployee(c.getCommentedBy(), employeeIds, "comment.commentedBy");
+				if (c.getComment() != null && c.getComment().length() > 1500) {
+					throw new IllegalArgumentException("comment longer than 1500 characters");
+				}
+			}
+		}
+		if (r.getAttachments() != null) {
+			for (TicketImportRecord.AttachmentRecord a : r.getAttachments()) {
+				if (a.getUploadedBy() != null) {
+					requireEmployee(a.getUploadedBy(), employeeIds, "attachment.uploadedBy");
+				}
+			}
+		}
+	}
+
+	private void requireEmployee(String key, Map<String, Long> employeeIds, String field) {
+		if (key == null || !employeeIds.containsKey(normalize(key))) {
+			throw new IllegalArgumentException(field + " '" + key + "' does not match any employee");
+		}
+	}
+
+	/* ================= HELPERS ================= */
+
+	private Map<String, Long> loadEmployeeIds() {
+		Map<String, Long> ids = new HashMap<>();
+		for (EmployeeKeyRow row : employeeRepository.findAllKeys()) {
+			if (row.getEmail() != null) {
+				ids.put(normalize(row.getEmail()), row.getId());
+			}
+			if (row.getEmployeeCode() != null) {
+				ids.put(normalize(row.getEmployeeCode()), row.getId());
+			}
+		}
+		return ids;
+	}
+
+	private Employee reference(String key, Map<String, Long> employeeIds) {
+		if (key == null) {
+			return null;
+		}
+		Long id = employeeIds.get(normalize(key));
+		return id == null ? null : entityManager.getReference(Employee.class, id);
+	}
+
+	private String normalize(String key) {
+		return key.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private void fail(ImportResult result, ImportJob job, String message) {
+		result.setFailed(result.getFailed() + 1);
+		job.failed.incrementAndGet();
+		if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+			result.getErrors().add(message);
+		}
+	}
+}
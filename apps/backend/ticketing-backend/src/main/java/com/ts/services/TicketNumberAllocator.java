@@ -0,0 +1,62 @@
+package com.ts.services;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.ts.enums.TicketCategory;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Hands out collision-free ticket numbers like {@code TS-IT-1042}.
+ *
+ * Each call to nextval on ticket_number_seq reserves a whole block of
+ * numbers for this node (hi/lo), so only one in {@code blockSize} tickets
+ * costs a database round-trip. Sequences are atomic, so blocks never overlap
+ * across threads or instances.
+ */
+@Service
+@RequiredArgsConstructor
+@ConfigurationProperties(prefix = "tickets.number")
+public class TicketNumberAllocator {
+
+	private static final String SEQUENCE = "ticket_number_seq";
+
+	@Getter @Setter
+	private int blockSize = 100;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private long next;
+	private long limit;
+
+	@PostConstruct
+	void init() {
+		jdbcTemplate.execute("create sequence if not exists " + SEQUENCE
+				+ " start with 1 increment by " + blockSize);
+
+		// an existing sequence decides the block size, whatever the config says
+		Long increment = jdbcTemplate.queryForObject(
+				"select increment_by from pg_sequences where sequencename = ?", Long.class, SEQUENCE);
+		if (increment != null) {
+			blockSize = increment.intValue();
+		}
+	}
+
+	public String nextTicketNumber(TicketCategory category) {
+		return "TS-" + category.name() + "-" + nextValue();
+	}
+
+	private synchronized long nextValue() {
+		if (next >= limit) {
+			Long hi = jdbcTemplate.queryForObject("select nextval('" + SEQUENCE + "')", Long.class);
+			next = hi;
+			limit = hi + blockSize;
+		}
+		return next++;
+	}
+}
@@ -0,0 +1,252 @@
+package com.ts.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Service;
+
+import com.ts.dtos.CommentIndexRow;
+import com.ts.dtos.TicketIndexRow;
+import com.ts.dtos.TicketResponse;
+import com.ts.dtos.TicketSearchResult;
+import com.ts.enums.Role;
+import com.ts.enums.TicketCategory;
+import com.ts.models.Employee;
+import com.ts.models.Ticket;
+import com.ts.models.TicketComment;
+import com.ts.repositories.TicketCommentRepository;
+import com.ts.repositories.TicketRepository;
+import com.ts.utils.InvertedIndex;
+import com.ts.utils.SeedBarrier;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory full-text index over ticket titles, descriptions and comments.
+ * Built from the database at startup and kept current from the create and
+ * comment paths once they commit. Other nodes are told the ids and read the
+ * rows back themselves.
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketSearchService implements CommandLineRunner {
+
+	private static final int TITLE_WEIGHT = 3;
+	private static final int REBUILD_CHUNK = 5000;
+	// each worker holds a connection for its chunk; keep well below the Hikari pool
+	private static final int REBUILD_WORKERS = 4;
+	private static final int DEFAULT_LIMIT = 20;
+	private static final int MAX_LIMIT = 50;
+
+	private static final String TOPIC = "ticket-search";
+
+	private final TicketRepository ticketRepository;
+	private final TicketCommentRepository commentRepository;
+	private final NotificationBus bus;
+	private final TransactionIds transactionIds;
+
+	// replaced as a whole by a rebuild
+	private volatile Indexes indexes = new Indexes();
+
+	private final SeedBarrier barrier = new SeedBarrier();
+
+	private static final class Indexes {
+		// internal comments live in their own index so they can be skipped per role
+		private final InvertedIndex publicIndex = new InvertedIndex();
+		private final InvertedIndex internalIndex = new InvertedIndex();
+
+		// what the visibility post-filter needs, without going back to the DB
+		private final Map<Long, TicketMeta> metas = new ConcurrentHashMap<>();
+	}
+
+	// one of the two ids is set
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class IndexChange {
+		private Long ticketId;
+		private Long commentId;
+	}
+
+	private static final class TicketMeta {
+		private final Long createdById;
+		private final TicketCategory category;
+
+		private TicketMeta(Long createdById, TicketCategory category) {
+			this.createdById = createdById;
+			this.category = category;
+		}
+	}
+
+	/* ================= REBUILD ================= */
+
+	@PostConstruct
+	void subscribe() {
+		bus.subscribe(TOPIC, IndexChange.class, new NotificationBus.ClusterListener<>() {
+			@Override
+			public void onEvents(long xid, List<IndexChange> events) {
+				indexRemote(xid, events);
+			}
+
+			@Override
+			public void onResync() {
+				rebuild();
+			}
+		});
+	}
+
+	@Override
+	public void run(String... args) throws Exception {
+		rebuild();
+	}
+
+	/*
+	 * Every chunk reads under the snapshot exported by one open transaction, so
+	 * the chunks together see exactly the transactions the barrier filters by.
+	 */
+	private void rebuild() {
+		barrier.seed(() -> transactionIds.readConsistently(() -> {
+			String snapshotId = transactionIds.exportSnapshot();
+			Indexes built = new Indexes();
+
+			long maxId = ticketRepository.findMaxId();
+			int workers = Math.min(REBUILD_WORKERS, Runtime.getRuntime().availableProcessors());
+			ExecutorService pool = Executors.newFixedThreadPool(workers);
+
+			try {
+				List<Future<?>> chunks = new ArrayList<>();
+				for (long from = 1; from <= maxId; from += REBUILD_CHUNK) {
+					long fromId = from;
+					long toId = Math.min(from + REBUILD_CHUNK - 1, maxId);
+					chunks.add(pool.submit(() ->
+							transactionIds.readInSnapshot(snapshotId, () -> indexRange(built, fromId, toId))));
+				}
+				for (Future<?> chunk : chunks) {
+					chunk.get();
+				}
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Search index rebuild failed", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Search index rebuild interrupted", e);
+			} finally {
+				pool.shutdown();
+			}
+
+			indexes = built;
+			System.out.println("Search index built with " + built.metas.size() + " tickets");
+		}));
+	}
+
+	private void indexRange(Indexes target, Long fromId, Long toId) {
+		for (TicketIndexRow row : ticketRepository.findIndexRows(fromId, toId)) {
+			addTicket(target, row);
+		}
+		for (CommentIndexRow row : commentRepository.findIndexRows(fromId, toId)) {
+			addComment(target, row);
+		}
+	}
+
+	/* ================= INCREMENTAL UPDATES ================= */
+
+	public void indexTicket(Ticket t) {
+		TicketIndexRow row = new TicketIndexRow(t.getId(), t.getTitle(), t.getDescription(), t.getCategory(),
+				t.getCreatedBy() == null ? null : t.getCreatedBy().getId());
+		barrier.afterCommit(transactionIds.current(), () -> addTicket(indexes, row));
+		bus.broadcast(TOPIC, new IndexChange(t.getId(), null));
+	}
+
+	public void indexComment(TicketComment c) {
+		CommentIndexRow row = new CommentIndexRow(c.getTicket().getId(), c.getComment(), c.getIsInternal());
+		barrier.afterCommit(transactionIds.current(), () -> addComment(indexes, row));
+		bus.broadcast(TOPIC, new IndexChange(null, c.getId()));
+	}
+
+	// another node committed these; its transaction is visible by now, so read them back
+	private void indexRemote(long xid, List<IndexChange> events) {
+		List<Long> ticketIds = new ArrayList<>();
+		List<Long> commentIds = new ArrayList<>();
+		for (IndexChange e : events) {
+			if (e.getTicketId() != null) {
+				ticketIds.add(e.getTicketId());
+			}
+			if (e.getCommentId() != null) {
+				commentIds.add(e.getCommentId());
+			}
+		}
+
+		List<TicketIndexRow> tickets = ticketIds.isEmpty() ? List.of() : ticketRepository.findIndexRowsByIdIn(ticketIds);
+		List<CommentIndexRow> comments = commentIds.isEmpty() ? List.of() : commentRepository.findIndexRowsByIdIn(commentIds);
+
+		barrier.applyAt(xid, () -> {
+			Indexes target = indexes;
+			tickets.forEach(row -> addTicket(target, row));
+			comments.forEach(row -> addComment(target, row));
+		});
+	}
+
+	private void addTicket(Indexes target, TicketIndexRow row) {
+		target.metas.put(row.getId(), new TicketMeta(row.getCreatedById(), row.getCategory()));
+		target.publicIndex.add(row.getId(), InvertedIndex.tokenize(row.getTitle()), TITLE_WEIGHT);
+		target.publicIndex.add(row.getId(), InvertedIndex.tokenize(row.getDescription()), 1);
+	}
+
+	private void addComment(Indexes target, CommentIndexRow row) {
+		InvertedIndex index = Boolean.TRUE.equals(row.getIsInternal()) ? target.internalIndex : target.publicIndex;
+		index.add(row.getTicketId(), InvertedIndex.tokenize(row.getComment()), 1);
+	}
+
+	/* ================= SEARCH ================= */
+
+	public List<TicketSearchResult> search(String query, Integer limit, Employee user) {
+
+		int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+		List<String> terms = InvertedIndex.tokenize(query);
+		if (terms.isEmpty()) {
+			return List.of();
+		}
+
+		Indexes current = indexes;
+		Map<Long, Double> scores = current.publicIndex.score(terms);
+		if (user.getRole() != Role.SOFTWARE_ENGINEER) {
+			current.internalIndex.score(terms).forEach((id, score) -> scores.merge(id, score, Double::sum));
+		}
+
+		List<Map.Entry<Long, Double>> top = scores.entrySet().stream()
+				.filter(e -> {
+					TicketMeta meta = current.metas.get(e.getKey());
+					return meta != null && TicketService.canView(meta.createdById, meta.category, user);
+				})
+				.sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+				.limit(max)
+				.toList();
+
+		if (top.isEmpty()) {
+			return List.of();
+		}
+
+		Map<Long, TicketResponse> rows = ticketRepository
+				.findRowsByIdIn(top.stream().map(Map.Entry::getKey).toList())
+				.stream()
+				.collect(Collectors.toMap(TicketResponse::getId, Function.identity()));
+
+		return top.stream()
+				.filter(e -> rows.containsKey(e.getKey()))
+				.map(e -> new TicketSearchResult(rows.get(e.getKey()), e.getValue()))
+				.toList();
+	}
+}
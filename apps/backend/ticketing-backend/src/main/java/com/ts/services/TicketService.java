@@ -1,18 +1,32 @@
 package com.ts.services;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ts.dtos.CursorPage;
 import com.ts.dtos.EmployeeSummary;
 import com.ts.dtos.TicketAttachmentResponse;
 import com.ts.dtos.TicketCommentResponse;
 import com.ts.dtos.TicketCreateRequest;
 import com.ts.dtos.TicketDetailResponse;
 import com.ts.dtos.TicketResponse;
+import com.ts.enums.ExportFormat;
 import com.ts.enums.NotificationType;
 import com.ts.enums.Priority;
 import com.ts.enums.Role;
@@ -27,13 +41,24 @@ import com.ts.repositories.EmployeeRepository;
 import com.ts.repositories.TicketAttachmentRepository;
 import com.ts.repositories.TicketCommentRepository;
 import com.ts.repositories.TicketRepository;
+import com.ts.utils.KeysetCursor;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import tools.jackson.databind.ObjectMapper;
 
 @Service
 @RequiredArgsConstructor
 public class TicketService {
 
+	private static final int DETAIL_BATCH_SIZE = 1000;
+	private static final int DEFAULT_PAGE_SIZE = 20;
+	private static final int MAX_PAGE_SIZE = 100;
+	private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+	private static final int EXPORT_FLUSH_EVERY = 500;
+	private static final String CSV_HEADER =
+			"id,ticketNumber,title,description,category,status,priority,createdBy,assignedTo,createdAt,updatedAt,resolvedAt\n";
+
 	private final TicketRepository ticketRepository;
 	private final EmployeeRepository employeeRepository;
 	private final TicketCommentRepository commentRepository;
@@ -41,13 +66,19 @@ public class TicketService {
 	private final EmailService emailService;
 	private final EmployeeService empService;
 	private final NotificationService notificationService;
+	private final TicketSearchService searchService;
+	private final TicketStatsService statsService;
+	private final TicketNumberAllocator ticketNumberAllocator;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
 
 	/* ================= CREATE TICKET ================= */
 
+	@Transactional
 	public TicketResponse createTicket(TicketCreateRequest req, Employee creator) {
 
 		Ticket t = new Ticket();
-		t.setTicketNumber("TS-" + UUID.randomUUID().toString().substring(0, 8));
+		t.setTicketNumber(ticketNumberAllocator.nextTicketNumber(req.getCategory()));
 		t.setTitle(req.getTitle());
 		t.setDescription(req.getDescription());
 		t.setCategory(req.getCategory());
@@ -58,6 +89,8 @@ public class TicketService {
 		t.setUpdatedAt(LocalDateTime.now());
 
 		ticketRepository.save(t);
+		searchService.indexTicket(t);
+		statsService.ticketCreated(t.getStatus(), t.getCategory(), t.getPriority());
 		
 		emailService.sendEmail(
 				t.getCreatedBy().getEmail(),
@@ -69,32 +102,24 @@ public class TicketService {
 				t.getPriority() + " Ticket Created by " +
 				creator.getName() + "(" + creator.getEmployeeCode() + ")";
 
-		// 🔔 Notify ADMIN
+		// 🔔 Notify ADMIN + CATEGORY TEAM with one shared notification
 		Employee admin = employeeRepository.findByRole(Role.ADMIN)
 				.orElseThrow(() -> new ResourceNotFoundException("Admin not found"));
 
+		Role teamRole = resolveRoleFromCategory(t.getCategory());
+
+		List<Employee> recipients = new ArrayList<>();
+		recipients.add(admin);
+		recipients.addAll(employeeRepository.findAllByRole(teamRole));
+
 		notificationService.createAndSendNotification(
-				admin,
+				recipients,
 				t,
 				t.getTitle(),
 				message,
 				NotificationType.TICKET_CREATED
 		);
 
-		// 🔔 Notify CATEGORY TEAM
-		Role teamRole = resolveRoleFromCategory(t.getCategory());
-
-		List<Employee> teamMembers = employeeRepository.findAllByRole(teamRole);
-		for (Employee emp : teamMembers) {
-			notificationService.createAndSendNotification(
-					emp,
-					t,
-					t.getTitle(),
-					message,
-					NotificationType.TICKET_CREATED
-			);
-		}
-
 		return mapTicket(t);
 	}
 
@@ -130,11 +155,13 @@ public class TicketService {
 
 	/* ================= UPDATE STATUS ================= */
 
+	@Transactional
 	public void updateStatus(Long id, TicketStatus status, Employee user) {
 
-		Ticket ticket = ticketRepository.findById(id)
+		Ticket ticket = ticketRepository.findForUpdate(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
 
+		TicketStatus previous = ticket.getStatus();
 		ticket.setStatus(status);
 		ticket.setUpdatedAt(LocalDateTime.now());
 
@@ -175,22 +202,26 @@ public class TicketService {
 		}
 
 		ticketRepository.save(ticket);
+		statsService.statusChanged(previous, status, ticket.getCategory(), ticket.getPriority());
 	}
 
 	/* ================= ASSIGN TICKET ================= */
 
+	@Transactional
 	public void assignTicket(Long ticketId, Long employeeId, Employee user) {
 
-		Ticket t = ticketRepository.findById(ticketId)
+		Ticket t = ticketRepository.findForUpdate(ticketId)
 				.orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
 
 		Employee assignee = employeeRepository.findById(employeeId)
 				.orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
 
+		TicketStatus previous = t.getStatus();
 		t.setAssignedTo(assignee);
 		t.setStatus(TicketStatus.IN_PROGRESS);
 		t.setUpdatedAt(LocalDateTime.now());
 		ticketRepository.save(t);
+		statsService.statusChanged(previous, t.getStatus(), t.getCategory(), t.getPriority());
 
 		emailService.sendEmail(
 				assignee.getEmail(),
@@ -226,32 +257,62 @@ public class TicketService {
 
 	/* ================= FETCH ALL DETAILS ================= */
 
+	@Transactional(readOnly = true)
 	public List<TicketDetailResponse> getAllTicketDetails(Employee user) {
 
 		List<Ticket> tickets;
 
 		if (user.getRole() == Role.ADMIN) {
-			tickets = ticketRepository.findAll();
+			tickets = ticketRepository.findAllWithParticipants();
 		} else {
 			tickets = ticketRepository.findByAssignedToOrCreatedBy(user, user);
 		}
 
+		return loadDetails(
+				tickets.stream()
+						.filter(ticket -> canView(ticket, user))
+						.toList(),
+				user
+		);
+	}
+
+	/**
+	 * Builds detail responses for a set of tickets with a fixed number of
+	 * queries: comments and attachments are fetched per chunk of tickets
+	 * with an IN (...) query and grouped in memory.
+	 */
+	private List<TicketDetailResponse> loadDetails(List<Ticket> tickets, Employee user) {
+
+		Map<Long, List<TicketComment>> commentsByTicket = new HashMap<>();
+		Map<Long, List<TicketAttachment>> attachmentsByTicket = new HashMap<>();
+
+		for (int from = 0; from < tickets.size(); from += DETAIL_BATCH_SIZE) {
+			List<Ticket> chunk = tickets.subList(from, Math.min(from + DETAIL_BATCH_SIZE, tickets.size()));
+
+			for (TicketComment c : commentRepository.findAllByTicketIn(chunk)) {
+				commentsByTicket.computeIfAbsent(c.getTicket().getId(), k -> new ArrayList<>()).add(c);
+			}
+
+			for (TicketAttachment a : attachmentRepository.findAllByTicketIn(chunk)) {
+				attachmentsByTicket.computeIfAbsent(a.getTicket().getId(), k -> new ArrayList<>()).add(a);
+			}
+		}
+
 		return tickets.stream()
-				.filter(ticket -> canView(ticket, user))
 				.map(ticket -> {
 					TicketDetailResponse res = new TicketDetailResponse();
 					res.setTicket(mapTicket(ticket));
 
 					res.setComments(
-							commentRepository.findByTicket(ticket).stream()
+							commentsByTicket.getOrDefault(ticket.getId(), List.of()).stream()
 									.filter(c -> !c.getIsInternal() || user.getRole() != Role.SOFTWARE_ENGINEER)
 									.map(this::mapComment)
 									.toList()
 					);
 
 					res.setAttachments(
-							attachmentRepository.findByTicket(ticket).stream()
-									.map(this::mapAttachment)
+							attachmentsByTicket.getOrDefault(ticket.getId(), List.of()).stream()
+									.map(TicketAttachmentResponse::toDto)
 									.collect(Collectors.toList())
 					);
 
@@ -260,34 +321,156 @@ public class TicketService {
 				.collect(Collectors.toList());
 	}
 
+	/* ================= KEYSET PAGE ================= */
+
+	@Transactional(readOnly = true)
+	public CursorPage<TicketResponse> fetchTicketPage(
+			Employee user,
+			String cursor,
+			Integer size,
+			TicketStatus status,
+			TicketCategory category,
+			Priority priority,
+			Long assigneeId
+	) {
+		int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+		boolean isAdmin = user.getRole() == Role.ADMIN;
+		Long viewerId = isAdmin ? null : user.getId();
+		TicketCategory viewerCategory = isAdmin ? null : resolveCategory(user.getRole());
+		Integer level = priority == null ? null : priority.getLevel();
+
+		// fetch one extra row to know whether another page exists
+		KeysetCursor after = KeysetCursor.decode(cursor);
+		List<Ticket> rows = after == null
+				? ticketRepository.findFirstPage(viewerId, viewerCategory, status, category, level, assigneeId,
+						Limit.of(pageSize + 1))
+				: ticketRepository.findPageAfter(viewerId, viewerCategory, status, category, level, assigneeId,
+						after.getAt(), after.getId(), Limit.of(pageSize + 1));
+
+		boolean hasMore = rows.size() > pageSize;
+		List<Ticket> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+		String nextCursor = null;
+		if (hasMore) {
+			Ticket last = page.get(page.size() - 1);
+			nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+		}
+
+		return new CursorPage<>(
+				page.stream().map(this::mapTicket).toList(),
+				nextCursor,
+				hasMore
+		);
+	}
+
+	/* ================= EXPORT ================= */
+
+	/**
+	 * Streams every visible ticket to {@code out} straight from a forward-only
+	 * cursor. Rows are detached as soon as they are written so the persistence
+	 * context never grows with the size of the export.
+	 */
+	@Transactional(readOnly = true)
+	public void exportTickets(
+			Employee user,
+			ExportFormat format,
+			TicketStatus status,
+			TicketCategory category,
+			Priority priority,
+			OutputStream out
+	) throws IOException {
+
+		boolean isAdmin = user.getRole() == Role.ADMIN;
+		Long viewerId = isAdmin ? null : user.getId();
+		TicketCategory viewerCategory = isAdmin ? null : resolveCategory(user.getRole());
+		Integer level = priority == null ? null : priority.getLevel();
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+
+		if (format == ExportFormat.CSV) {
+			writer.write(CSV_HEADER);
+		}
+
+		try (Stream<Ticket> rows = ticketRepository.streamForExport(
+				viewerId, viewerCategory, status, category, level, null)) {
+
+			Iterator<Ticket> it = rows.iterator();
+			int written = 0;
+
+			while (it.hasNext()) {
+				Ticket t = it.next();
+
+				if (format == ExportFormat.CSV) {
+					writer.write(toCsvRow(t));
+				} else {
+					writer.write(objectMapper.writeValueAsString(mapTicket(t)));
+					writer.write('\n');
+				}
+
+				entityManager.detach(t);
+
+				// flush the first row right away so the client starts receiving bytes
+				if (++written == 1 || written % EXPORT_FLUSH_EVERY == 0) {
+					writer.flush();
+				}
+			}
+		}
+
+		writer.flush();
+	}
+
+	private String toCsvRow(Ticket t) {
+		return String.join(",",
+				String.valueOf(t.getId()),
+				csv(t.getTicketNumber()),
+				csv(t.getTitle()),
+				csv(t.getDescription()),
+				t.getCategory() == null ? "" : t.getCategory().name(),
+				t.getStatus() == null ? "" : t.getStatus().name(),
+				t.getPriority() == null ? "" : Priority.fromLevel(t.getPriority()).name(),
+				csv(t.getCreatedBy() == null ? null : t.getCreatedBy().getEmail()),
+				csv(t.getAssignedTo() == null ? null : t.getAssignedTo().getEmail()),
+				t.getCreatedAt() == null ? "" : t.getCreatedAt().toString(),
+				t.getUpdatedAt() == null ? "" : t.getUpdatedAt().toString(),
+				t.getResolvedAt() == null ? "" : t.getResolvedAt().toString()
+		) + "\n";
+	}
+
+	private String csv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
 	/* ================= FETCH OPEN ================= */
 
 	public List<TicketResponse> fetchOpenTickets(Employee user) {
 
 		if (user.getRole() == Role.ADMIN) {
-			return ticketRepository.findByStatus(TicketStatus.OPEN)
-					.stream()
-					.map(this::mapTicket)
-					.toList();
+			return ticketRepository.findRowsByStatus(TicketStatus.OPEN, null);
 		}
 
-		TicketCategory category = resolveCategory(user.getRole());
-
-		return ticketRepository.findByStatusAndCategory(TicketStatus.OPEN, category)
-				.stream()
-				.filter(ticket -> canView(ticket, user))
-				.map(this::mapTicket)
-				.toList();
+		// every ticket in the user's own category passes canView
+		return ticketRepository.findRowsByStatus(TicketStatus.OPEN, resolveCategory(user.getRole()));
 	}
 
 	/* ================= HELPERS ================= */
 
 	private boolean canView(Ticket t, Employee u) {
+		return canView(t.getCreatedBy().getId(), t.getCategory(), u);
+	}
+
+	static boolean canView(Long createdById, TicketCategory category, Employee u) {
 		if (u.getRole() == Role.ADMIN)
 			return true;
-		if (t.getCreatedBy().getId().equals(u.getId()))
+		if (u.getId().equals(createdById))
 			return true;
-		return t.getCategory().name().equals(u.getRole().name());
+		return category.name().equals(u.getRole().name());
 	}
 
 	private Role resolveRoleFromCategory(TicketCategory category) {
@@ -349,15 +532,6 @@ public class TicketService {
 		return r;
 	}
 
-	private TicketAttachmentResponse mapAttachment(TicketAttachment a) {
-		TicketAttachmentResponse r = new TicketAttachmentResponse();
-		r.setId(a.getId());
-		r.setFileName(a.getFileName());
-		r.setFileUrl(a.getFileUrl());
-		r.setUploadedAt(a.getUploadedAt());
-		return r;
-	}
-	
 	private Employee fetchAdmin() {
 		return employeeRepository.findByRole(Role.ADMIN)
 				.orElseThrow(() -> new ResourceNotFoundException("Admin not found"));
@@ -365,26 +539,17 @@ public class TicketService {
 
 	public List<TicketResponse> fetchLiveTickets(Employee user) {
 		if (user.getRole() == Role.ADMIN) {
-			return ticketRepository.findByStatusNotIn(List.of(TicketStatus.OPEN,TicketStatus.RESOLVED))
-					.stream()
-					.map(this::mapTicket)
-					.toList();
+			return ticketRepository.findRowsByStatusNotIn(List.of(TicketStatus.OPEN,TicketStatus.RESOLVED));
 		}
 		return null;
 	}
 
 	public List<TicketResponse> fetchResolvedTickets(Employee user) {
 		if (user.getRole() == Role.ADMIN) {
-			return ticketRepository.findByStatus(TicketStatus.RESOLVED)
-					.stream()
-					.map(this::mapTicket)
-					.toList();
+			return ticketRepository.findRowsByStatus(TicketStatus.RESOLVED, null);
 		}
 		else {
-			return ticketRepository.findByStatusAndAssignedToOrCreatedBy(TicketStatus.RESOLVED, user, user)
-					.stream()
-					.map(this::mapTicket)
-					.toList();
+			return ticketRepository.findRowsByStatusForParticipant(TicketStatus.RESOLVED, user.getId());
 		}
 	}
 }
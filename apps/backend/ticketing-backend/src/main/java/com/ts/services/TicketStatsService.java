@@ -0,0 +1,187 @@
+package com.ts.services;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Service;
+
+import com.ts.dtos.TicketCountRow;
+import com.ts.dtos.TicketStatsResponse;
+import com.ts.enums.Priority;
+import com.ts.enums.TicketCategory;
+import com.ts.enums.TicketStatus;
+import com.ts.repositories.TicketRepository;
+import com.ts.utils.SeedBarrier;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Dashboard counters per status, category and priority. Seeded with one
+ * GROUP BY at startup and then adjusted by deltas from TicketService, applied
+ * once their transaction commits and broadcast to the other nodes.
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketStatsService implements CommandLineRunner {
+
+	private static final TicketStatus[] STATUSES = TicketStatus.values();
+	private static final TicketCategory[] CATEGORIES = TicketCategory.values();
+	private static final Priority[] PRIORITIES = Priority.values();
+
+	// slot 0 of the priority dimension collects tickets without a valid priority
+	private static final int PRIORITY_SLOTS = PRIORITIES.length + 1;
+
+	private static final String TOPIC = "ticket-stats";
+
+	private final TicketRepository ticketRepository;
+	private final NotificationBus bus;
+	private final TransactionIds transactionIds;
+
+	// [status][category][priority] flattened
+	private volatile LongAdder[] counters = newCounters();
+
+	private final SeedBarrier barrier = new SeedBarrier();
+
+	// a ticket moving from one status to another; from is null for a new ticket
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class StatsDelta {
+		private TicketStatus from;
+		private TicketStatus to;
+		private TicketCategory category;
+		private Integer priority;
+	}
+
+	private static LongAdder[] newCounters() {
+		LongAdder[] adders = new LongAdder[STATUSES.length * CATEGORIES.length * PRIORITY_SLOTS];
+		for (int i = 0; i < adders.length; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	@PostConstruct
+	void subscribe() {
+		bus.subscribe(TOPIC, StatsDelta.class, new NotificationBus.ClusterListener<>() {
+			@Override
+			public void onEvents(long xid, List<StatsDelta> events) {
+				barrier.applyAt(xid, () -> events.forEach(TicketStatsService.this::apply));
+			}
+
+			@Override
+			public void onResync() {
+				seed();
+			}
+		});
+	}
+
+	@Override
+	public void run(String... args) throws Exception {
+		seed();
+	}
+
+	private void seed() {
+		// requests are already being served: deltas the GROUP BY already saw are dropped
+		barrier.seed(() -> transactionIds.readConsistently(() -> {
+			LongAdder[] seeded = newCounters();
+			for (TicketCountRow row : ticketRepository.countByStatusCategoryPriority()) {
+				if (row.getStatus() != null && row.getCategory() != null) {
+					seeded[slot(row.getStatus(), row.getCategory(), row.getPriority())].add(row.getCount());
+				}
+			}
+			counters = seeded;
+		}));
+	}
+
+	/* ================= DELTAS ================= */
+
+	public void ticketCreated(TicketStatus status, TicketCategory category, Integer priority) {
+		if (status != null && category != null) {
+			record(new StatsDelta(null, status, category, priority));
+		}
+	}
+
+	public void statusChanged(TicketStatus from, TicketStatus to, TicketCategory category, Integer priority) {
+		if (from == to || category == null) {
+			return;
+		}
+		record(new StatsDelta(from, to, category, priority));
+	}
+
+	private void record(StatsDelta delta) {
+		barrier.afterCommit(transactionIds.current(), () -> apply(delta));
+		bus.broadcast(TOPIC, delta);
+	}
+
+	private void apply(StatsDelta delta) {
+		LongAdder[] current = counters;
+		if (delta.getFrom() != null) {
+			current[slot(delta.getFrom(), delta.getCategory(), delta.getPriority())].decrement();
+		}
+		if (delta.getTo() != null) {
+			current[slot(delta.getTo(), delta.getCategory(), delta.getPriority())].increment();
+		}
+	}
+
+	/* ================= READ ================= */
+
+	public TicketStatsResponse snapshot() {
+
+		Map<TicketStatus, Long> byStatus = new EnumMap<>(TicketStatus.class);
+		Map<TicketCategory, Map<TicketStatus, Long>> byCategory = new EnumMap<>(TicketCategory.class);
+		Map<Priority, Map<TicketStatus, Long>> byPriority = new EnumMap<>(Priority.class);
+		long total = 0;
+		LongAdder[] current = counters;
+
+		for (TicketStatus status : STATUSES) {
+			for (TicketCategory category : CATEGORIES) {
+				for (int p = 0; p < PRIORITY_SLOTS; p++) {
+					long count = current[index(status, category, p)].sum();
+					if (count == 0) {
+						continue;
+					}
+					total += count;
+					byStatus.merge(status, count, Long::sum);
+					byCategory.computeIfAbsent(category, k -> new EnumMap<>(TicketStatus.class))
+							.merge(status, count, Long::sum);
+					if (p > 0) {
+						byPriority.computeIfAbsent(PRIORITIES[p - 1], k -> new EnumMap<>(TicketStatus.class))
+								.merge(status, count, Long::sum);
+					}
+				}
+			}
+		}
+
+		return new TicketStatsResponse(total, byStatus, byCategory, byPriority);
+	}
+
+	/* ================= HELPERS ================= */
+
+	private int slot(TicketStatus status, TicketCategory category, Integer priority) {
+		return index(status, category, prioritySlot(priority));
+	}
+
+	private int index(TicketStatus status, TicketCategory category, int prioritySlot) {
+		return (status.ordinal() * CATEGORIES.length + category.ordinal()) * PRIORITY_SLOTS + prioritySlot;
+	}
+
+	private int prioritySlot(Integer priority) {
+		if (priority == null) {
+			return 0;
+		}
+		for (int i = 0; i < PRIORITIES.length; i++) {
+			if (PRIORITIES[i].getLevel() == priority) {
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+}
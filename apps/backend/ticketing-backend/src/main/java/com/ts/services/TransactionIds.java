@@ -0,0 +1,180 @@
+package com.ts.services;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ts.utils.TxSnapshot;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Postgres transaction ids and snapshots, used to order in-memory read models
+ * (counters, search index) against the queries that seed them: a change is
+ * applied on top of a seed only if the seed's snapshot did not already see
+ * the transaction that made it.
+ *
+ * Only cluster mode (notifications.cluster.mode=postgres) needs ids that other
+ * nodes can compare, and only there does a write transaction pay for
+ * {@code txid_current()}. In local mode every write goes through this node,
+ * so ids come from an in-memory sequence and a seed's snapshot is taken while
+ * no such transaction is in the middle of committing.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionIds {
+
+	/** Stands in for a change made outside any transaction: newer than every snapshot. */
+	public static final long UNKNOWN = Long.MAX_VALUE;
+
+	private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-Fa-f-]+");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final PlatformTransactionManager transactionManager;
+	private final Environment environment;
+
+	private TransactionTemplate snapshotTx;
+	private boolean clustered;
+
+	// local mode: ids handed out, those not finished yet, and a gate that keeps
+	// commits from straddling the moment a seed fixes its snapshot
+	private final AtomicLong localIds = new AtomicLong();
+	private final Set<Long> openLocalIds = ConcurrentHashMap.newKeySet();
+	private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+
+	@PostConstruct
+	void init() {
+		clustered = "postgres".equalsIgnoreCase(environment.getProperty("notifications.cluster.mode"));
+		snapshotTx = new TransactionTemplate(transactionManager);
+		snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		snapshotTx.setReadOnly(true);
+	}
+
+	/**
+	 * Id of the current transaction, fetched once per transaction, or
+	 * {@link #UNKNOWN} when there is none.
+	 */
+	public long current() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return UNKNOWN;
+		}
+
+		Long xid = (Long) TransactionSynchronizationManager.getResource(this);
+		if (xid != null) {
+			return xid;
+		}
+
+		long assigned = clustered
+				? jdbcTemplate.queryForObject("select txid_current()", Long.class)
+				: nextLocalId();
+		TransactionSynchronizationManager.bindResource(this, assigned);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			private boolean gated;
+
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				if (!clustered) {
+					commitGate.readLock().lock();
+					gated = true;
+				}
+			}
+
+			@Override
+			public void suspend() {
+				TransactionSynchronizationManager.unbindResource(TransactionIds.this);
+			}
+
+			@Override
+			public void resume() {
+				TransactionSynchronizationManager.bindResource(TransactionIds.this, assigned);
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(TransactionIds.this);
+				if (!clustered) {
+					openLocalIds.remove(assigned);
+					if (gated) {
+						commitGate.readLock().unlock();
+					}
+				}
+			}
+		});
+		return assigned;
+	}
+
+	/**
+	 * Runs {@code reads} in one REPEATABLE READ transaction and returns the
+	 * snapshot all of them saw.
+	 */
+	public TxSnapshot readConsistently(Runnable reads) {
+		return snapshotTx.execute(status -> {
+			// the first statement fixes the transaction's snapshot
+			TxSnapshot snapshot = clustered
+					? TxSnapshot.parse(jdbcTemplate.queryForObject("select txid_current_snapshot()::text", String.class))
+					: localSnapshot();
+			reads.run();
+			return snapshot;
+		});
+	}
+
+	// under the gate, so a snapshot never sees an id that is handed out but not yet open
+	private long nextLocalId() {
+		commitGate.readLock().lock();
+		try {
+			long id = localIds.incrementAndGet();
+			openLocalIds.add(id);
+			return id;
+		} finally {
+			commitGate.readLock().unlock();
+		}
+	}
+
+	/*
+	 * With the gate closed no transaction is between beforeCommit and
+	 * afterCompletion, so every id still open has not committed and every
+	 * finished one had, before the database fixes the snapshot.
+	 */
+	private TxSnapshot localSnapshot() {
+		commitGate.writeLock().lock();
+		try {
+			jdbcTemplate.queryForObject("select 1", Integer.class);
+			long xmax = localIds.get() + 1;
+			long[] open = openLocalIds.stream().mapToLong(Long::longValue).filter(id -> id < xmax).sorted().toArray();
+			return TxSnapshot.of(open.length == 0 ? xmax : open[0], xmax, open);
+		} finally {
+			commitGate.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Exports the snapshot of the surrounding {@link #readConsistently}
+	 * transaction so other connections can read under it while it stays open.
+	 */
+	public String exportSnapshot() {
+		return jdbcTemplate.queryForObject("select pg_export_snapshot()", String.class);
+	}
+
+	/** Runs {@code reads} in a new transaction under an exported snapshot. */
+	public void readInSnapshot(String snapshotId, Runnable reads) {
+		if (!SNAPSHOT_ID.matcher(snapshotId).matches()) {
+			throw new IllegalArgumentException("Invalid snapshot id: " + snapshotId);
+		}
+		snapshotTx.executeWithoutResult(status -> {
+			jdbcTemplate.execute("set transaction snapshot '" + snapshotId + "'");
+			reads.run();
+		});
+	}
+}
@@ -0,0 +1,104 @@
+package com.ts.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Service;
+
+import com.ts.dtos.UnreadCountRow;
+import com.ts.repositories.NotificationRecipientRepository;
+import com.ts.utils.SeedBarrier;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-employee unread notification counts, kept in memory so the badge never
+ * queries the database. Rebuilt from one GROUP BY at startup; changes are
+ * applied after commit and pushed to the employee's WebSocket queue, and
+ * broadcast so the other nodes apply them too.
+ */
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService implements CommandLineRunner {
+
+	private static final String TOPIC = "unread-counts";
+
+	private final NotificationRecipientRepository recipientRepo;
+	private final NotificationPushDispatcher pushDispatcher;
+	private final NotificationBus bus;
+	private final TransactionIds transactionIds;
+
+	private volatile Map<Long, AtomicLong> counts = new ConcurrentHashMap<>();
+
+	private final SeedBarrier barrier = new SeedBarrier();
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class UnreadDelta {
+		private Long employeeId;
+		private long delta;
+	}
+
+	@PostConstruct
+	void subscribe() {
+		bus.subscribe(TOPIC, UnreadDelta.class, new NotificationBus.ClusterListener<>() {
+			@Override
+			public void onEvents(long xid, List<UnreadDelta> events) {
+				// the originating node already pushed the new counts to the sessions
+				barrier.applyAt(xid, () -> events.forEach(e -> apply(e.getEmployeeId(), e.getDelta())));
+			}
+
+			@Override
+			public void onResync() {
+				seed();
+			}
+		});
+	}
+
+	@Override
+	public void run(String... args) throws Exception {
+		seed();
+	}
+
+	private void seed() {
+		// requests are already being served: deltas the GROUP BY already saw are dropped
+		barrier.seed(() -> transactionIds.readConsistently(() -> {
+			Map<Long, AtomicLong> seeded = new ConcurrentHashMap<>();
+			for (UnreadCountRow row : recipientRepo.countUnreadByEmployee()) {
+				seeded.put(row.getEmployeeId(), new AtomicLong(row.getCount()));
+			}
+			counts = seeded;
+		}));
+	}
+
+	public long get(Long employeeId) {
+		AtomicLong count = counts.get(employeeId);
+		return count == null ? 0 : count.get();
+	}
+
+	/**
+	 * Applies {@code delta} once the current transaction commits, or right
+	 * away when there is none.
+	 */
+	public void adjust(Long employeeId, long delta) {
+		if (delta == 0) {
+			return;
+		}
+		barrier.afterCommit(transactionIds.current(),
+				() -> pushDispatcher.pushUnreadCount(employeeId, apply(employeeId, delta)));
+		bus.broadcast(TOPIC, new UnreadDelta(employeeId, delta));
+	}
+
+	private long apply(Long employeeId, long delta) {
+		return counts.computeIfAbsent(employeeId, k -> new AtomicLong())
+				.updateAndGet(v -> Math.max(0, v + delta));
+	}
+}
@@ -0,0 +1,181 @@
+package com.ts.utils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a file (or any byte source) to the response with single-range
+ * (RFC 9110) and conditional-request support. When the bytes live in a plain
+ * file and the connector offers sendfile, the kernel copies them straight
+ * from the page cache to the socket; otherwise the source transfers them.
+ */
+public final class FileRangeResponder {
+
+	// Tomcat's sendfile request attributes (see org.apache.catalina.Globals)
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	// below this a plain write is cheaper than handing off to the poller
+	private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+	@FunctionalInterface
+	public interface ByteSource {
+		void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+	}
+
+	private FileRangeResponder() {
+	}
+
+	public static void serve(Path file, String etag, String cacheControl, String contentType, String fileName,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+		serve(Files.size(file), file, fileSource(file), etag, cacheControl, contentType, fileName, request, response);
+	}
+
+	public static ByteSource fileSource(Path file) {
+		return (position, count, target) -> {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				while (count > 0) {
+					long n = channel.transferTo(position, count, target);
+					if (n <= 0) {
+						break;
+					}
+					position += n;
+					count -= n;
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param file the plain file holding the bytes, or null when they are not
+	 *             in one (sendfile is skipped then)
+	 */
+	public static void serve(long length, Path file, ByteSource source, String etag, String cacheControl,
+			String contentType, String fileName, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+		if (etag != null) {
+			response.setHeader(HttpHeaders.ETAG, etag);
+			if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+				response.setStatus(HttpStatus.NOT_MODIFIED.value());
+				return;
+			}
+		}
+
+		long start = 0;
+		long end = length - 1;
+		boolean partial = false;
+
+		String range = request.getHeader(HttpHeaders.RANGE);
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (range != null && (ifRange == null || ifRange.equals(etag))) {
+			long[] bounds = parseRange(range, length);
+			if (bounds != null && bounds.length == 0) {
+				response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+				return;
+			}
+			if (bounds != null) {
+				start = bounds[0];
+				end = bounds[1];
+				partial = true;
+			}
+		}
+
+		long count = end - start + 1;
+
+		response.setContentType(contentType);
+		response.setHeader("X-Content-Type-Options", "nosniff");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				ContentDisposition.inline().filename(fileName, StandardCharsets.UTF_8).build().toString());
+		if (partial) {
+			response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+			response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+		}
+		response.setContentLengthLong(count);
+
+		if ("HEAD".equals(request.getMethod()) || count == 0) {
+			return;
+		}
+
+		if (file != null && count >= SENDFILE_MIN_BYTES
+				&& Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end + 1);
+			return;
+		}
+
+		source.transferTo(start, count, Channels.newChannel(response.getOutputStream()));
+	}
+
+	/*
+	 * Returns {start, end} for a satisfiable single range, an empty array for
+	 * an unsatisfiable one, and null when the header should be ignored
+	 * (malformed or multi-range), in which case the whole file is sent.
+	 */
+	static long[] parseRange(String header, long length) {
+		if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+			return null;
+		}
+		String spec = header.substring(6).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+
+		try {
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+
+			if (first.isEmpty()) {
+				// suffix range: the last N bytes
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0 || length == 0) {
+					return new long[0];
+				}
+				return new long[] { Math.max(0, length - suffix), length - 1 };
+			}
+
+			long start = Long.parseLong(first);
+			long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+			if (start >= length || start > end) {
+				return new long[0];
+			}
+			return new long[] { start, end };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String c = candidate.trim();
+			if (c.equals("*") || c.equals(etag) || c.equals("W/" + etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,22 @@
+package com.ts.utils;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Attachment file types the thumbnail renderer can decode.
+ */
+public final class ImageFormats {
+
+	private static final Set<String> RENDERABLE = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+	private ImageFormats() {
+	}
+
+	public static boolean canRender(String fileName) {
+		if (fileName == null || fileName.lastIndexOf('.') < 0) {
+			return false;
+		}
+		return RENDERABLE.contains(fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT));
+	}
+}
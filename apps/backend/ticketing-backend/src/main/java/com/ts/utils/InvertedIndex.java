@@ -0,0 +1,122 @@
+package com.ts.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe, append-only inverted index with BM25 scoring and prefix
+ * expansion. Documents are identified by their database id and may receive
+ * more tokens over time (e.g. new comments on a ticket).
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "in",
+            "is", "it", "of", "on", "or", "that", "the", "to", "was", "were", "with"
+    );
+
+    // term -> (docId -> term frequency); sorted so prefixes are a range scan
+    private final ConcurrentSkipListMap<String, ConcurrentHashMap<Long, Integer>> postings =
+            new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<Long, Integer> docLengths = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (raw.length() > 1 && !STOP_WORDS.contains(raw)) {
+                tokens.add(raw);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Adds {@code tokens} to the document, counting each occurrence
+     * {@code weight} times.
+     */
+    public void add(Long docId, List<String> tokens, int weight) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : tokens) {
+            counts.merge(token, weight, Integer::sum);
+        }
+        counts.forEach((term, tf) ->
+                postings.computeIfAbsent(term, k -> new ConcurrentHashMap<>()).merge(docId, tf, Integer::sum));
+
+        int added = tokens.size() * weight;
+        docLengths.merge(docId, added, Integer::sum);
+        totalLength.addAndGet(added);
+    }
+
+    public int size() {
+        return docLengths.size();
+    }
+
+    /**
+     * BM25 scores for every document matching at least one query term.
+     * Query terms also match indexed terms they are a prefix of, at a
+     * reduced weight.
+     */
+    public Map<Long, Double> score(List<String> queryTerms) {
+        Map<Long, Double> scores = new HashMap<>();
+        int docCount = docLengths.size();
+        if (docCount == 0) {
+            return scores;
+        }
+        double avgLength = (double) totalLength.get() / docCount;
+
+        for (String q : queryTerms) {
+            accumulate(scores, postings.get(q), 1.0, docCount, avgLength);
+
+            if (q.length() < MIN_PREFIX_LENGTH) {
+                continue;
+            }
+            NavigableMap<String, ConcurrentHashMap<Long, Integer>> expansions =
+                    postings.subMap(q, false, q + Character.MAX_VALUE, false);
+            int expanded = 0;
+            for (Map<Long, Integer> docs : expansions.values()) {
+                if (++expanded > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                accumulate(scores, docs, PREFIX_WEIGHT, docCount, avgLength);
+            }
+        }
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Double> scores, Map<Long, Integer> docs, double weight,
+            int docCount, double avgLength) {
+        if (docs == null || docs.isEmpty()) {
+            return;
+        }
+        int df = docs.size();
+        double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+
+        docs.forEach((docId, tf) -> {
+            int length = docLengths.getOrDefault(docId, 0);
+            double norm = tf + K1 * (1 - B + B * length / avgLength);
+            scores.merge(docId, weight * idf * tf * (K1 + 1) / norm, Double::sum);
+        });
+    }
+}
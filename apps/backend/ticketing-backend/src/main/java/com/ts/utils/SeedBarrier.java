@@ -0,0 +1,106 @@
+package com.ts.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Orders in-memory deltas against a seed query so that every committed change
+ * is counted exactly once, whether it was made on this node or reported by
+ * another one.
+ *
+ * Each delta carries the id of the transaction that made it. Until a seed has
+ * finished, deltas are held back; afterwards, and when the held ones are
+ * replayed, a delta is applied only if the seed's snapshot did not already
+ * see its transaction. Nothing blocks: commits never wait for a seed.
+ */
+public class SeedBarrier {
+
+	private static final class Pending {
+		private final long xid;
+		private final Runnable delta;
+
+		private Pending(long xid, Runnable delta) {
+			this.xid = xid;
+			this.delta = delta;
+		}
+	}
+
+	private final Object seedLock = new Object();
+
+	// guarded by this
+	private final List<Pending> pending = new ArrayList<>();
+	private TxSnapshot snapshot;
+	private boolean seeded;
+
+	/**
+	 * Applies {@code delta} once the current transaction (id {@code xid})
+	 * commits, or right away when there is none; dropped on rollback.
+	 */
+	public void afterCommit(long xid, Runnable delta) {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			applyAt(xid, delta);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				applyAt(xid, delta);
+			}
+		});
+	}
+
+	/** Applies a delta from committed transaction {@code xid}. */
+	public synchronized void applyAt(long xid, Runnable delta) {
+		if (!seeded) {
+			pending.add(new Pending(xid, delta));
+		} else if (!snapshot.sees(xid)) {
+			delta.run();
+		}
+	}
+
+	/**
+	 * Runs {@code seed}, which rebuilds the state and returns the snapshot it
+	 * read under, then replays the deltas that arrived meanwhile. Can be
+	 * repeated to rebuild from scratch.
+	 */
+	public void seed(Supplier<TxSnapshot> seed) {
+		synchronized (seedLock) {
+			synchronized (this) {
+				seeded = false;
+			}
+
+			TxSnapshot taken;
+			try {
+				taken = seed.get();
+			} catch (RuntimeException e) {
+				// keep the previous state rather than holding deltas back forever
+				synchronized (this) {
+					if (snapshot != null) {
+						release(snapshot);
+					}
+				}
+				throw e;
+			}
+
+			synchronized (this) {
+				release(taken);
+			}
+		}
+	}
+
+	private void release(TxSnapshot taken) {
+		snapshot = taken;
+		seeded = true;
+		for (Pending p : pending) {
+			if (!taken.sees(p.xid)) {
+				p.delta.run();
+			}
+		}
+		pending.clear();
+	}
+}
@@ -0,0 +1,62 @@
+package com.ts.utils;
+
+import java.util.Arrays;
+
+/**
+ * A Postgres snapshot as printed by {@code txid_current_snapshot()}:
+ * {@code xmin:xmax:xip_list}, or the same shape built from this node's own
+ * transaction ids in local mode. Tells whether a transaction's effects were
+ * visible to everything read under the snapshot.
+ */
+public final class TxSnapshot {
+
+	private final long xmin;
+	private final long xmax;
+	private final long[] inProgress;
+
+	private TxSnapshot(long xmin, long xmax, long[] inProgress) {
+		this.xmin = xmin;
+		this.xmax = xmax;
+		this.inProgress = inProgress;
+	}
+
+	/** {@code inProgress} must be sorted. */
+	public static TxSnapshot of(long xmin, long xmax, long[] inProgress) {
+		return new TxSnapshot(xmin, xmax, inProgress);
+	}
+
+	public static TxSnapshot parse(String text) {
+		String[] parts = text.trim().split(":", -1);
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Not a transaction snapshot: " + text);
+		}
+		long[] xip = parts[2].isEmpty()
+				? new long[0]
+				: Arrays.stream(parts[2].split(",")).mapToLong(Long::parseLong).sorted().toArray();
+		return new TxSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), xip);
+	}
+
+	/**
+	 * True when transaction {@code xid} had already finished when the snapshot
+	 * was taken. For a committed transaction that means the snapshot saw its
+	 * changes.
+	 */
+	public boolean sees(long xid) {
+		if (xid < xmin) {
+			return true;
+		}
+		if (xid >= xmax) {
+			return false;
+		}
+		return Arrays.binarySearch(inProgress, xid) < 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder().append(xmin).append(':').append(xmax).append(':');
+		for (int i = 0; i < inProgress.length; i++) {
+			sb.append(i == 0 ? "" : ",").append(inProgress[i]);
+		}
+		return sb.toString();
+	}
+}
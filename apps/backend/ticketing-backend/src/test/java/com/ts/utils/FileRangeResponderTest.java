@@ -0,0 +1,152 @@
+package com.ts.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FileRangeResponderTest {
+
+	private static final byte[] BODY = "0123456789".getBytes(StandardCharsets.US_ASCII);
+	private static final String ETAG = "\"abc123\"";
+
+	/* ================= parseRange ================= */
+
+	@Test
+	void parsesBoundedAndOpenRanges() {
+		assertArrayEquals(new long[] { 0, 99 }, FileRangeResponder.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[] { 900, 999 }, FileRangeResponder.parseRange("bytes=900-", 1000));
+		// an end past the file is clamped to the last byte
+		assertArrayEquals(new long[] { 500, 999 }, FileRangeResponder.parseRange("bytes=500-5000", 1000));
+	}
+
+	@Test
+	void parsesSuffixRanges() {
+		assertArrayEquals(new long[] { 900, 999 }, FileRangeResponder.parseRange("bytes=-100", 1000));
+		// a suffix longer than the file means the whole file
+		assertArrayEquals(new long[] { 0, 999 }, FileRangeResponder.parseRange("bytes=-5000", 1000));
+	}
+
+	@Test
+	void reportsUnsatisfiableRanges() {
+		assertArrayEquals(new long[0], FileRangeResponder.parseRange("bytes=1000-", 1000));
+		assertArrayEquals(new long[0], FileRangeResponder.parseRange("bytes=5-2", 1000));
+		assertArrayEquals(new long[0], FileRangeResponder.parseRange("bytes=-0", 1000));
+		assertArrayEquals(new long[0], FileRangeResponder.parseRange("bytes=0-", 0));
+		assertArrayEquals(new long[0], FileRangeResponder.parseRange("bytes=-10", 0));
+	}
+
+	@Test
+	void ignoresMultiRangeAndMalformedHeaders() {
+		assertNull(FileRangeResponder.parseRange("bytes=0-1,5-6", 1000));
+		assertNull(FileRangeResponder.parseRange("items=0-1", 1000));
+		assertNull(FileRangeResponder.parseRange("bytes=abc-", 1000));
+		assertNull(FileRangeResponder.parseRange("bytes=5", 1000));
+	}
+
+	/* ================= serve ================= */
+
+	@Test
+	void servesWholeFileWithoutRange() throws IOException {
+		MockHttpServletResponse response = serve(request(), ETAG);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+		assertArrayEquals(BODY, response.getContentAsByteArray());
+	}
+
+	@Test
+	void servesSuffixRange() throws IOException {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+		MockHttpServletResponse response = serve(request, ETAG);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 7-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals("789", response.getContentAsString());
+	}
+
+	@Test
+	void answers416ForUnsatisfiableRange() throws IOException {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+
+		MockHttpServletResponse response = serve(request, ETAG);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void fallsBackToWholeFileForMultiRange() throws IOException {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+		MockHttpServletResponse response = serve(request, ETAG);
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(BODY, response.getContentAsByteArray());
+	}
+
+	@Test
+	void honoursRangeWhenIfRangeMatches() throws IOException {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+		request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+		MockHttpServletResponse response = serve(request, ETAG);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 2-4/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals("234", response.getContentAsString());
+	}
+
+	@Test
+	void sendsWholeFileWhenIfRangeIsStale() throws IOException {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"older\"");
+
+		MockHttpServletResponse response = serve(request, ETAG);
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(BODY, response.getContentAsByteArray());
+	}
+
+	@Test
+	void sendsWholeFileForIfRangeWithoutEtag() throws IOException {
+		MockHttpServletRequest request = request();
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+		request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+		MockHttpServletResponse response = serve(request, null);
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(BODY, response.getContentAsByteArray());
+	}
+
+	/* ================= HELPERS ================= */
+
+	private static MockHttpServletRequest request() {
+		return new MockHttpServletRequest("GET", "/api/tickets/1/attachments/1/download");
+	}
+
+	private static MockHttpServletResponse serve(MockHttpServletRequest request, String etag) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FileRangeResponder.serve(BODY.length, null,
+				(position, count, target) -> target.write(ByteBuffer.wrap(BODY, (int) position, (int) count)),
+				etag, "private, no-cache", "text/plain", "digits.txt", request, response);
+		return response;
+	}
+}
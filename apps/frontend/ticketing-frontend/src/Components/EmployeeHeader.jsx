@@ -81,12 +81,14 @@ const EmployeeHeader = () => {
         
         // Subscribe to user-specific notification queue
         client.subscribe(`/queue/notifications/${employeeId}`, (message) => {
-          const notification = JSON.parse(message.body);
-          console.log('New notification received:', notification);
+          // Server batches bursts into one frame (oldest first)
+          const payload = JSON.parse(message.body);
+          const incoming = Array.isArray(payload) ? [...payload].reverse() : [payload];
+          console.log('New notifications received:', incoming);
           
-          // Add new notification to state
+          // Add new notifications to state
           setNotifications(prev => {
-            const updated = [notification, ...prev];
+            const updated = [...incoming, ...prev];
             // Save to localStorage
             localStorage.setItem(`notifications_${employeeId}`, JSON.stringify(updated));
             return updated;
@@ -33,7 +33,7 @@ import {
   Ban
 } from 'lucide-react';
 import EmployeeHeader from '../../Components/EmployeeHeader';
-import { API_BASE_URL, FILE_BASE_URL } from '../../config';
+import { API_BASE_URL } from '../../config';
 
 const ViewTicket = () => {
   const { id } = useParams();
@@ -43,6 +43,7 @@ const ViewTicket = () => {
   const [loading, setLoading] = useState(true);
   const [comments, setComments] = useState([]);
   const [attachments, setAttachments] = useState([]);
+  const [thumbnails, setThumbnails] = useState({});
   const [newComment, setNewComment] = useState('');
   const [isInternal, setIsInternal] = useState(false);
   const [commentLoading, setCommentLoading] = useState(false);
@@ -208,6 +209,36 @@ const ViewTicket = () => {
     }
   }, [ticket]);
 
+  // Load small thumbnails for image attachments (they need the auth header)
+  useEffect(() => {
+    let cancelled = false;
+    const urls = [];
+
+    attachments
+      .filter((attachment) => attachment.thumbnailUrl)
+      .forEach(async (attachment) => {
+        try {
+          const response = await fetch(`${API_BASE_URL}${attachment.thumbnailUrl}`, {
+            headers: {
+              'Authorization': `Bearer ${getAuthToken()}`,
+            },
+          });
+          // 202 while the thumbnail is still being rendered: keep the icon
+          if (response.status !== 200 || cancelled) return;
+          const url = URL.createObjectURL(await response.blob());
+          urls.push(url);
+          setThumbnails((prev) => ({ ...prev, [attachment.id]: url }));
+        } catch (error) {
+          console.error('Error loading thumbnail:', error);
+        }
+      });
+
+    return () => {
+      cancelled = true;
+      urls.forEach((url) => URL.revokeObjectURL(url));
+    };
+  }, [attachments]);
+
   // Update filtered statuses when availableStatuses or employeeData changes
   useEffect(() => {
     filterStatuses();
@@ -617,6 +648,64 @@ const ViewTicket = () => {
     setSelectedFiles(prev => prev.filter((_, i) => i !== index));
   };
 
+  // Files above the multipart limit go through the resumable chunked upload
+  const MULTIPART_LIMIT = 10 * 1024 * 1024;
+
+  const sha256Hex = async (blob) => {
+    if (!window.crypto?.subtle) return null;
+    const digest = await window.crypto.subtle.digest('SHA-256', await blob.arrayBuffer());
+    return Array.from(new Uint8Array(digest)).map((b) => b.toString(16).padStart(2, '0')).join('');
+  };
+
+  const uploadInChunks = async (file, token) => {
+    const base = `${API_BASE_URL}/tickets/${id}/attachments/uploads`;
+    const authHeader = { 'Authorization': `Bearer ${token}` };
+
+    const initResponse = await fetch(base, {
+      method: 'POST',
+      headers: { ...authHeader, 'Content-Type': 'application/json' },
+      body: JSON.stringify({ fileName: file.name, size: file.size }),
+    });
+    if (!initResponse.ok) throw new Error('Failed to start upload');
+    let status = await initResponse.json();
+
+    while (status.nextOffset < file.size) {
+      const offset = status.nextOffset;
+      const chunk = file.slice(offset, Math.min(offset + status.chunkSize, file.size));
+      const checksum = await sha256Hex(chunk);
+
+      let response;
+      for (let attempt = 0; attempt < 3; attempt++) {
+        try {
+          response = await fetch(`${base}/${status.uploadId}?offset=${offset}`, {
+            method: 'PUT',
+            headers: {
+              ...authHeader,
+              'Content-Type': 'application/octet-stream',
+              ...(checksum ? { 'X-Chunk-SHA256': checksum } : {}),
+            },
+            body: chunk,
+          });
+          if (response.ok) break;
+        } catch (error) {
+          // dropped connection: retry the same chunk
+          response = null;
+        }
+      }
+      if (!response?.ok) {
+        await fetch(`${base}/${status.uploadId}`, { method: 'DELETE', headers: authHeader });
+        throw new Error(`Failed to upload ${file.name}`);
+      }
+      status = await response.json();
+    }
+
+    const completeResponse = await fetch(`${base}/${status.uploadId}/complete`, {
+      method: 'POST',
+      headers: authHeader,
+    });
+    if (!completeResponse.ok) throw new Error(`Failed to complete ${file.name}`);
+  };
+
   // Upload attachments
   const uploadAttachments = async () => {
     if (selectedFiles.length === 0 || !ticket?.ticket || isTicketClosed()) return;
@@ -624,18 +713,28 @@ const ViewTicket = () => {
     setFileUploading(true);
     try {
       const token = getAuthToken();
-      const formData = new FormData();
-      selectedFiles.forEach(file => {
-        formData.append('files', file);
-      });
+      const smallFiles = selectedFiles.filter(file => file.size <= MULTIPART_LIMIT);
+      const largeFiles = selectedFiles.filter(file => file.size > MULTIPART_LIMIT);
 
-      const response = await fetch(`${API_BASE_URL}/tickets/${id}/attachments`, {
-        method: 'POST',
-        headers: {
-          'Authorization': `Bearer ${token}`,
-        },
-        body: formData,
-      });
+      for (const file of largeFiles) {
+        await uploadInChunks(file, token);
+      }
+
+      let response = { ok: true };
+      if (smallFiles.length > 0) {
+        const formData = new FormData();
+        smallFiles.forEach(file => {
+          formData.append('files', file);
+        });
+
+        response = await fetch(`${API_BASE_URL}/tickets/${id}/attachments`, {
+          method: 'POST',
+          headers: {
+            'Authorization': `Bearer ${token}`,
+          },
+          body: formData,
+        });
+      }
 
       if (response.ok) {
         setSelectedFiles([]);
@@ -673,6 +772,34 @@ const ViewTicket = () => {
     return '📎';
   };
 
+  // Ask for a short-lived signed link and let the browser fetch the file itself,
+  // so large files stream to disk instead of being held in memory as a Blob
+  const downloadAttachment = async (attachment) => {
+    // opened before the await, while the click still counts as a user gesture
+    const win = window.open('', '_blank');
+    try {
+      const response = await fetch(`${API_BASE_URL}/tickets/${id}/attachments/${attachment.id}/download-link`, {
+        method: 'POST',
+        headers: {
+          'Authorization': `Bearer ${getAuthToken()}`,
+        },
+      });
+      if (!response.ok) {
+        throw new Error('Failed to download attachment');
+      }
+      const { url } = await response.json();
+      if (win) {
+        win.opener = null;
+        win.location.href = `${API_BASE_URL}${url}`;
+      } else {
+        window.location.href = `${API_BASE_URL}${url}`;
+      }
+    } catch (error) {
+      if (win) win.close();
+      console.error('Error downloading attachment:', error);
+    }
+  };
+
   // Handle comment submission
   const handleSubmitComment = async (e) => {
     e.preventDefault();
@@ -1172,7 +1299,15 @@ const ViewTicket = () => {
                     {attachments.map((attachment) => (
                       <div key={attachment.id} className="flex items-center justify-between p-3 bg-gray-50 rounded-lg border border-gray-200">
                         <div className="flex items-center space-x-3">
-                          <span className="text-xl">{getFileIcon(attachment.fileName)}</span>
+                          {thumbnails[attachment.id] ? (
+                            <img
+                              src={thumbnails[attachment.id]}
+                              alt={attachment.fileName}
+                              className="w-10 h-10 object-cover rounded"
+                            />
+                          ) : (
+                            <span className="text-xl">{getFileIcon(attachment.fileName)}</span>
+                          )}
                           <div>
                             <div className="text-sm font-medium text-gray-900 truncate max-w-xs">
                               {attachment.fileName}
@@ -1182,15 +1317,14 @@ const ViewTicket = () => {
                             </div>
                           </div>
                         </div>
-                        <a
-                          href={`${FILE_BASE_URL}${attachment.fileUrl}`}
-                          target="_blank"
-                          rel="noopener noreferrer"
+                        <button
+                          type="button"
+                          onClick={() => downloadAttachment(attachment)}
                           className="p-2 text-gray-400 hover:text-blue-600 cursor-pointer"
                           title="Download"
                         >
                           <Download className="w-4 h-4" />
-                        </a>
+                        </button>
                       </div>
                     ))}
                   </div>